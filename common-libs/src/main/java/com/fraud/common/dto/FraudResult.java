@@ -7,7 +7,9 @@ import lombok.*;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * FraudResult DTO - Result of fraud detection analysis.
@@ -54,9 +56,9 @@ public class FraudResult implements Serializable {
     private List<String> triggeredRules;
 
     /**
-     * Human-readable explanation of why this was flagged
+     * Human-readable explanation of why this was flagged; rendered from the
+     * other fields on first read unless set explicitly
      */
-    @JsonProperty("reason")
     private String reason;
 
     /**
@@ -90,6 +92,28 @@ public class FraudResult implements Serializable {
     @JsonProperty("recommendedAction")
     private RecommendedAction recommendedAction;
 
+    private static final BigDecimal ML_REASON_THRESHOLD = new BigDecimal("0.3");
+
+    @JsonProperty("reason")
+    public String getReason() {
+        return reason != null ? reason : renderReason();
+    }
+
+    private String renderReason() {
+        StringBuilder text = new StringBuilder(isFraud ? "FRAUD DETECTED: " : "Transaction analyzed: ");
+
+        if (triggeredRules != null && !triggeredRules.isEmpty()) {
+            text.append("Rules triggered: ").append(String.join(", ", triggeredRules)).append(". ");
+        }
+
+        BigDecimal probability = mlPrediction != null ? mlPrediction.getProbability() : null;
+        if (probability != null && probability.compareTo(ML_REASON_THRESHOLD) > 0) {
+            text.append("ML model flagged with ").append(probability).append(" probability.");
+        }
+
+        return text.toString().trim();
+    }
+
     /**
      * Risk level enumeration
      */
@@ -129,11 +153,58 @@ public class FraudResult implements Serializable {
         @JsonProperty("triggered")
         private boolean triggered;
 
+        /**
+         * False when the rule produced no result in time and was skipped
+         */
+        @JsonProperty("evaluated")
+        @Builder.Default
+        private boolean evaluated = true;
+
         @JsonProperty("score")
         private BigDecimal score;
 
-        @JsonProperty("message")
-        private String message;
+        @JsonProperty("reasons")
+        private List<Reason> reasons;
+
+        /**
+         * Render the reasons of this evaluation as text.
+         */
+        @JsonProperty(value = "message", access = JsonProperty.Access.READ_ONLY)
+        public String getMessage() {
+            if (reasons == null || reasons.isEmpty()) {
+                return null;
+            }
+            if (reasons.size() == 1) {
+                return reasons.get(0).render();
+            }
+            return reasons.stream()
+                    .map(Reason::render)
+                    .collect(Collectors.joining(" "));
+        }
+    }
+
+    /**
+     * Reason code with the parameters of its message
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Reason implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @JsonProperty("code")
+        private ReasonCode code;
+
+        @JsonProperty("params")
+        private List<Object> params;
+
+        public static Reason of(ReasonCode code, Object... params) {
+            return new Reason(code, params.length == 0 ? List.of() : Arrays.asList(params));
+        }
+
+        public String render() {
+            return code.render(params);
+        }
     }
 
     /**
@@ -0,0 +1,25 @@
+package com.fraud.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * MLBatchScoreRequest DTO - Request payload for batch ML model scoring.
+ * 
+ * Carries several scoring requests that the ML model service scores
+ * in a single call.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MLBatchScoreRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @JsonProperty("transactions")
+    private List<MLScoreRequest> transactions;
+}
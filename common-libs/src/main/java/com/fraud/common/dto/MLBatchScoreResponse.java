@@ -0,0 +1,27 @@
+package com.fraud.common.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * MLBatchScoreResponse DTO - Response from batch ML model scoring.
+ * 
+ * Contains one score per submitted transaction, in request order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MLBatchScoreResponse implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @JsonProperty("predictions")
+    private List<MLScoreResponse> predictions;
+
+    @JsonProperty("processingTimeMs")
+    private Long processingTimeMs;
+}
@@ -0,0 +1,61 @@
+package com.fraud.common.dto;
+
+import java.util.List;
+
+/**
+ * ReasonCode - Structured explanation of a rule evaluation outcome.
+ *
+ * Rules record a code and its parameters; the human-readable text is only
+ * rendered from the message template when it is actually read.
+ */
+public enum ReasonCode {
+
+    AMOUNT_NOT_PROVIDED("Amount not provided"),
+    AMOUNT_NORMAL("Transaction amount within normal range"),
+    AMOUNT_CRITICAL("CRITICAL: Transaction amount $%s exceeds critical threshold of $%s"),
+    AMOUNT_HIGH("HIGH: Transaction amount $%s exceeds threshold of $%s"),
+
+    USER_NOT_PROVIDED("User ID not provided"),
+
+    VELOCITY_COUNT_BREACH("Velocity breach: %s transactions in last hour (max: %s)."),
+    VELOCITY_AMOUNT_BREACH("24h amount breach: $%s + $%s exceeds max $%s."),
+    VELOCITY_NORMAL("Transaction velocity within normal limits"),
+    VELOCITY_UNAVAILABLE("Unable to evaluate velocity - proceeding with caution"),
+
+    LOCATION_NEW_USER("New user - establishing baseline location"),
+    IP_CHANGED("IP address changed: %s -> %s."),
+    LOCATION_CHANGED("Location changed: %s -> %s."),
+    LOCATION_CONSISTENT("Location consistent with user profile"),
+    LOCATION_UNAVAILABLE("Unable to evaluate location - proceeding with caution"),
+
+    TIME_NORMAL("Transaction time within normal hours"),
+    TIME_NIGHT("Transaction at unusual hour: %02d:00 UTC (1-5 AM window)"),
+    TIME_NIGHT_WEEKEND("Transaction at unusual hour: %02d:00 UTC (1-5 AM window) on weekend"),
+    TIME_UNAVAILABLE("Unable to evaluate transaction time"),
+
+    CONDITION_MET("%s"),
+    CONDITION_NOT_MET("Rule condition not met"),
+
+    RULE_TIMED_OUT("Rule not evaluated: exceeded its time budget of %s ms"),
+    RULE_REJECTED("Rule not evaluated: bulkhead %s is full"),
+    RULE_SKIPPED("Rule not evaluated: score already capped");
+
+    private final String template;
+
+    ReasonCode(String template) {
+        this.template = template;
+    }
+
+    /**
+     * Render the message for this code.
+     *
+     * @param params The parameters of the template, in order
+     * @return Human-readable message
+     */
+    public String render(List<?> params) {
+        if (params == null || params.isEmpty()) {
+            return template;
+        }
+        return String.format(template, params.toArray());
+    }
+}
@@ -0,0 +1,241 @@
+package com.fraud.engine.listener;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fraud.common.constants.KafkaConstants;
+import com.fraud.common.dto.FraudAlert;
+import com.fraud.common.dto.MLScoreResponse;
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.config.TaskExecutors;
+import com.fraud.engine.feature.FeaturePrefetcher;
+import com.fraud.engine.feature.FeatureSnapshot;
+import com.fraud.engine.model.MLModelClient;
+import com.fraud.engine.persistence.TransactionPersistenceService;
+import com.fraud.engine.persistence.WriteBehindQueue;
+import com.fraud.engine.processor.TransactionProcessor;
+import com.fraud.engine.repository.RuleConfigRepository;
+import com.fraud.engine.rules.AmountThresholdRule;
+import com.fraud.engine.rules.LocationAnomalyRule;
+import com.fraud.engine.rules.RuleBulkheads;
+import com.fraud.engine.rules.RuleChain;
+import com.fraud.engine.rules.RuleConfigLoader;
+import com.fraud.engine.rules.TimeAnomalyRule;
+import com.fraud.engine.rules.VelocityRule;
+import com.fraud.engine.velocity.VelocityAggregator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Throughput and latency percentiles of the Kafka listener path on platform versus virtual threads.
+ *
+ * Each operation hands one record to the TransactionEventListener on a
+ * long-lived consumer thread and waits until the record is acknowledged,
+ * which with write-behind is once a writer thread has persisted it. The
+ * listener, processor, rule chain, velocity aggregator and write-behind
+ * queue are the production classes; the feature prefetch and the batch
+ * write block for jdbcMillis and the ML score arrives after mlMillis,
+ * standing in for Postgres and the ML service. The JMH threads feed one
+ * consumer each, like spring.kafka.listener.concurrency. The threads
+ * parameter starts the consumer and writer threads the way the service
+ * does with spring.threads.virtual.enabled off or on.
+ *
+ * The virtual variant needs a Java 21 runtime; on Java 17 run only
+ * -p threads=platform.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@Threads(3)
+@State(Scope.Benchmark)
+public class ListenerThreadsBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param("2")
+    public int jdbcMillis;
+
+    @Param("5")
+    public int mlMillis;
+
+    private final AtomicInteger partitions = new AtomicInteger();
+
+    private AsyncTaskExecutor consumerExecutor;
+    private WriteBehindQueue writeBehindQueue;
+    private TransactionEventListener listener;
+
+    @Setup
+    public void setUp() {
+        // Measure the listener path, not console logging
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.ERROR);
+
+        boolean virtualThreads = "virtual".equals(threads);
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads require Java 21, running on " + Runtime.version());
+        }
+        consumerExecutor = TaskExecutors.threadPerTask("bench-consumer-", virtualThreads);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        TransactionPersistenceService persistenceService = stub(TransactionPersistenceService.class);
+        doAnswer(invocation -> blockFor(jdbcMillis)).when(persistenceService).persistBatch(anyList(), anyList());
+        writeBehindQueue = new WriteBehindQueue(persistenceService, meterRegistry,
+                true, 3, 10_000, 500, Duration.ofSeconds(30), virtualThreads);
+        writeBehindQueue.start();
+
+        FeaturePrefetcher featurePrefetcher = stub(FeaturePrefetcher.class);
+        when(featurePrefetcher.prefetch(any(TransactionEvent.class), anyInt())).thenAnswer(invocation -> {
+            blockFor(jdbcMillis);
+            return FeatureSnapshot.anonymous(invocation.<TransactionEvent>getArgument(0).getUserId());
+        });
+
+        MLScoreResponse score = MLScoreResponse.builder()
+                .fraudProbability(new BigDecimal("0.1200"))
+                .prediction("LEGITIMATE")
+                .isFraud(false)
+                .modelName("FraudDetector")
+                .modelVersion("1.0.0")
+                .build();
+        MLModelClient mlModelClient = stub(MLModelClient.class);
+        when(mlModelClient.getScoreAsync(any(TransactionEvent.class)))
+                .thenReturn(Mono.delay(Duration.ofMillis(mlMillis)).thenReturn(score));
+
+        @SuppressWarnings("unchecked")
+        KafkaTemplate<String, FraudAlert> alertKafkaTemplate = stub(KafkaTemplate.class);
+        TransactionProcessor processor = new TransactionProcessor(ruleChain(), featurePrefetcher, mlModelClient,
+                persistenceService, writeBehindQueue,
+                new VelocityAggregator(List.of(Duration.ofHours(1), Duration.ofHours(24)), 24, meterRegistry),
+                alertKafkaTemplate);
+        ReflectionTestUtils.setField(processor, "pipelined", true);
+
+        listener = new TransactionEventListener(processor, stub(DeadLetterPublishingRecoverer.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        writeBehindQueue.stop();
+    }
+
+    @State(Scope.Thread)
+    public static class Consumer {
+
+        private final BlockingQueue<Delivery> inbox = new SynchronousQueue<>();
+        private Future<?> loop;
+        private int partition;
+        private TransactionEvent event;
+
+        @Setup
+        public void setUp(ListenerThreadsBenchmark benchmark) {
+            partition = benchmark.partitions.getAndIncrement();
+            event = TransactionEvent.builder()
+                    .transactionId("TXN-" + partition)
+                    .userId("USER-" + partition)
+                    .amount(new BigDecimal("42.50"))
+                    .currency("USD")
+                    .ipAddress("10.0.0.1")
+                    .location("New York, US")
+                    .timestamp(Instant.parse("2024-01-10T12:00:00Z"))
+                    .build();
+            loop = benchmark.consumerExecutor.submit(() -> poll(benchmark.listener));
+        }
+
+        @TearDown
+        public void tearDown() {
+            loop.cancel(true);
+        }
+
+        private void poll(TransactionEventListener listener) {
+            try {
+                while (true) {
+                    Delivery delivery = inbox.take();
+                    listener.onTransactionReceived(delivery.record(), () -> delivery.acknowledged().complete(null));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Benchmark
+    public void processRecord(Consumer consumer) throws InterruptedException {
+        ConsumerRecord<String, TransactionEvent> record = new ConsumerRecord<>(
+                KafkaConstants.TOPIC_TRANSACTION_EVENTS, consumer.partition, 0L,
+                consumer.event.getUserId(), consumer.event);
+        CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+        consumer.inbox.put(new Delivery(record, acknowledged));
+        acknowledged.join();
+    }
+
+    private static RuleChain ruleChain() {
+        AmountThresholdRule amount = new AmountThresholdRule();
+        ReflectionTestUtils.setField(amount, "defaultHighThreshold", new BigDecimal("10000"));
+        ReflectionTestUtils.setField(amount, "defaultCriticalThreshold", new BigDecimal("50000"));
+        VelocityRule velocity = new VelocityRule();
+        ReflectionTestUtils.setField(velocity, "defaultMaxTransactionsPerHour", 10);
+        ReflectionTestUtils.setField(velocity, "defaultMaxAmount24h", new BigDecimal("25000"));
+
+        // Disabled, the loader serves the built-in rule defaults
+        RuleConfigLoader loader = new RuleConfigLoader(mock(RuleConfigRepository.class), event -> { }, false);
+        RuleChain ruleChain = new RuleChain(
+                List.of(amount, velocity, new LocationAnomalyRule(), new TimeAnomalyRule()),
+                new RuleBulkheads(false, 50, 1, 1, new SimpleMeterRegistry()),
+                loader);
+        ruleChain.compile();
+        return ruleChain;
+    }
+
+    /**
+     * Mock that keeps no record of its invocations, so it does not grow over a long run.
+     */
+    private static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+
+    private static Object blockFor(int millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return null;
+    }
+
+    private record Delivery(ConsumerRecord<String, TransactionEvent> record, CompletableFuture<Void> acknowledged) {
+    }
+}
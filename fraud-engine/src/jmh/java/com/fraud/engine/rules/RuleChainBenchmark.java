@@ -0,0 +1,114 @@
+package com.fraud.engine.rules;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fraud.common.dto.FraudResult;
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.feature.FeatureSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cost of one rule chain decision with the built-in rules.
+ *
+ * Run with -prof gc (the profile's default jmh.args); gc.alloc.rate.norm is
+ * the bytes allocated per decision.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleChainBenchmark {
+
+    private RuleChain ruleChain;
+    private TransactionEvent normalEvent;
+    private TransactionEvent suspiciousEvent;
+    private FeatureSnapshot knownUser;
+    private FeatureSnapshot busyUser;
+
+    @Setup
+    public void setUp() {
+        // Measure scoring, not console logging
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.ERROR);
+
+        AmountThresholdRule amount = new AmountThresholdRule();
+        ReflectionTestUtils.setField(amount, "defaultHighThreshold", new BigDecimal("10000"));
+        ReflectionTestUtils.setField(amount, "defaultCriticalThreshold", new BigDecimal("50000"));
+        VelocityRule velocity = new VelocityRule();
+        ReflectionTestUtils.setField(velocity, "defaultMaxTransactionsPerHour", 10);
+        ReflectionTestUtils.setField(velocity, "defaultMaxAmount24h", new BigDecimal("25000"));
+
+        RuleConfigLoader loader = mock(RuleConfigLoader.class);
+        when(loader.current()).thenReturn(RuleSet.EMPTY);
+        ruleChain = new RuleChain(
+                List.of(amount, velocity, new LocationAnomalyRule(), new TimeAnomalyRule()),
+                new RuleBulkheads(false, 50, 1, 1, new SimpleMeterRegistry()),
+                loader);
+        ruleChain.compile();
+
+        Instant noon = Instant.parse("2024-01-10T12:00:00Z");
+        normalEvent = TransactionEvent.builder()
+                .transactionId("TXN-1")
+                .userId("USER-1")
+                .amount(new BigDecimal("42.50"))
+                .currency("USD")
+                .ipAddress("10.0.0.1")
+                .location("New York, US")
+                .timestamp(noon)
+                .build();
+        suspiciousEvent = TransactionEvent.builder()
+                .transactionId("TXN-2")
+                .userId("USER-1")
+                .amount(new BigDecimal("75000.00"))
+                .currency("USD")
+                .ipAddress("203.0.113.9")
+                .location("Lagos, NG")
+                .timestamp(Instant.parse("2024-01-10T03:00:00Z"))
+                .build();
+
+        knownUser = FeatureSnapshot.builder()
+                .userId("USER-1")
+                .knownUser(true)
+                .lastKnownIp("10.0.0.1")
+                .lastKnownLocation("New York, US")
+                .lastTransactionAt(noon.minusSeconds(3_600))
+                .transactionCountLastHour(1)
+                .transactionAmountLast24h(new BigDecimal("120.00"))
+                .build();
+        busyUser = knownUser.toBuilder()
+                .transactionCountLastHour(25)
+                .transactionAmountLast24h(new BigDecimal("30000.00"))
+                .build();
+    }
+
+    @Benchmark
+    public FraudResult normalTransaction() {
+        return ruleChain.executeRules(normalEvent, knownUser);
+    }
+
+    @Benchmark
+    public FraudResult suspiciousTransaction() {
+        return ruleChain.executeRules(suspiciousEvent, busyUser);
+    }
+}
@@ -0,0 +1,133 @@
+package com.fraud.engine.cache;
+
+import com.fraud.engine.entity.UserProfile;
+import com.fraud.engine.repository.UserProfileRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * User Profile Cache - Bounded write-through cache of user profiles.
+ *
+ * The feature prefetcher reads profiles from here instead of the database. Writers lock the
+ * users they update with {@link #lockUntilCompletion}, which holds a striped
+ * per-user lock until the surrounding database transaction completes.
+ * Updated profiles are published with {@link #putAfterCommit} and only
+ * become visible once the transaction has committed, so readers never see a
+ * rolled-back profile and an older profile never overwrites a newer one.
+ *
+ * Cached profiles are shared and must not be modified.
+ */
+@Component
+@Slf4j
+public class UserProfileCache {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final UserProfileRepository userProfileRepository;
+    private final Cache<String, UserProfile> cache;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public UserProfileCache(
+            UserProfileRepository userProfileRepository,
+            MeterRegistry meterRegistry,
+            @Value("${fraud.profile-cache.max-size:100000}") long maxSize,
+            @Value("${fraud.profile-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+
+        this.userProfileRepository = userProfileRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userProfiles");
+        log.info("User profile cache initialized: max size {}, expire after write {}", maxSize, expireAfterWrite);
+    }
+
+    /**
+     * Get the profiles of several users, loading all misses with a single query.
+     *
+     * @param userIds The user IDs
+     * @return The shared, read-only profiles by user ID; unknown users are absent
+     */
+    public Map<String, UserProfile> getAll(Collection<String> userIds) {
+        return cache.getAll(userIds, this::loadAll);
+    }
+
+    /**
+     * Lock users for update until the current transaction completes.
+     *
+     * @param userIds The users about to be updated
+     * @throws IllegalStateException if called outside a transaction
+     */
+    public void lockUntilCompletion(Collection<String> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("User profiles can only be locked inside a transaction");
+        }
+
+        // Always lock stripes in ascending order so batches cannot deadlock each other
+        List<ReentrantLock> acquired = userIds.stream()
+                .map(this::stripeOf)
+                .distinct()
+                .sorted()
+                .map(stripe -> locks[stripe])
+                .toList();
+        acquired.forEach(ReentrantLock::lock);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                acquired.forEach(ReentrantLock::unlock);
+            }
+        });
+    }
+
+    /**
+     * Publish updated profiles once the current transaction commits.
+     *
+     * @param profiles The saved profiles
+     */
+    public void putAfterCommit(Collection<UserProfile> profiles) {
+        List<UserProfile> published = List.copyOf(profiles);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                published.forEach(profile -> cache.put(profile.getUserId(), detachedCopy(profile)));
+            }
+        });
+    }
+
+    private Map<String, UserProfile> loadAll(Set<? extends String> userIds) {
+        return userProfileRepository.findByUserIdIn(List.copyOf(userIds)).stream()
+                .collect(Collectors.toMap(UserProfile::getUserId, this::detachedCopy));
+    }
+
+    /**
+     * Copy a profile so the cache never shares an instance with a persistence context.
+     */
+    private UserProfile detachedCopy(UserProfile profile) {
+        return profile.toBuilder().build();
+    }
+
+    private int stripeOf(String userId) {
+        return Math.floorMod(userId.hashCode(), LOCK_STRIPES);
+    }
+}
@@ -1,6 +1,7 @@
 package com.fraud.engine.config;
 
 import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.listener.PartitionRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,6 +23,19 @@ import java.util.Map;
  * 
  * Configures the Kafka consumer for processing transaction events
  * with proper error handling and JSON deserialization.
+ *
+ * Offsets are acknowledged asynchronously once a record is durable, which
+ * with write-behind happens on a writer thread. Async acks let those arrive
+ * out of order: the container only commits up to the first unacknowledged
+ * offset and pauses the consumer until the previous poll is fully acked,
+ * so a record whose write failed is never committed past.
+ *
+ * With spring.threads.virtual.enabled on Java 21 or later, the consumer
+ * threads run on virtual threads. Each consumer still processes its
+ * records one at a time to keep partition order, so this does not add
+ * concurrency to the blocking JDBC and ML calls of the TransactionProcessor;
+ * it frees the carrier thread while they block. Listener concurrency is
+ * still set by spring.kafka.listener.concurrency.
  */
 @Configuration
 @EnableKafka
@@ -39,6 +53,12 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.max-poll-records:100}")
     private int maxPollRecords;
 
+    @Value("${spring.kafka.listener.concurrency:3}")
+    private int concurrency;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     /**
      * Consumer configuration map.
      */
@@ -90,15 +110,54 @@ public class KafkaConsumerConfig {
      * Kafka listener container factory.
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> kafkaListenerContainerFactory(
+            PartitionRebalanceListener rebalanceListener) {
         ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         
         factory.setConsumerFactory(consumerFactory());
-        factory.setConcurrency(3); // Number of consumer threads
+        factory.setConcurrency(concurrency); // Number of consumer threads
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setAsyncAcks(true);
         factory.getContainerProperties().setObservationEnabled(true);
+        factory.getContainerProperties().setConsumerRebalanceListener(rebalanceListener);
+        configureListenerThreads(factory, "fraud-consumer-");
         
         return factory;
     }
+
+    /**
+     * Kafka listener container factory for micro-batch processing.
+     *
+     * Delivers the whole poll to the listener so the batch can be
+     * processed in one pass and its offsets committed once.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> batchKafkaListenerContainerFactory(
+            PartitionRebalanceListener rebalanceListener) {
+        ConcurrentKafkaListenerContainerFactory<String, TransactionEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency); // Number of consumer threads
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        factory.getContainerProperties().setAsyncAcks(true);
+        factory.getContainerProperties().setObservationEnabled(true);
+        factory.getContainerProperties().setConsumerRebalanceListener(rebalanceListener);
+        configureListenerThreads(factory, "fraud-batch-consumer-");
+
+        return factory;
+    }
+
+    /**
+     * Run the consumers of a container factory on virtual threads if enabled.
+     */
+    private void configureListenerThreads(ConcurrentKafkaListenerContainerFactory<?, ?> factory,
+                                          String threadNamePrefix) {
+        if (virtualThreads) {
+            factory.getContainerProperties()
+                    .setListenerTaskExecutor(TaskExecutors.threadPerTask(threadNamePrefix, true));
+        }
+    }
 }
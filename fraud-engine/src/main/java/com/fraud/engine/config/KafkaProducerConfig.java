@@ -1,7 +1,9 @@
 package com.fraud.engine.config;
 
+import com.fraud.common.constants.KafkaConstants;
 import com.fraud.common.dto.FraudAlert;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -9,6 +11,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
@@ -18,7 +21,8 @@ import java.util.Map;
  * Kafka Producer Configuration for Fraud Alerts.
  * 
  * Configures the Kafka producer for publishing fraud alerts
- * to the notification service.
+ * to the notification service, and the recoverer that moves
+ * transactions which could not be processed to the dead letter topic.
  */
 @Configuration
 public class KafkaProducerConfig {
@@ -62,4 +66,23 @@ public class KafkaProducerConfig {
         template.setObservationEnabled(true);
         return template;
     }
+
+    /**
+     * Kafka template for dead-lettered transaction records.
+     */
+    @Bean
+    public KafkaTemplate<String, Object> deadLetterKafkaTemplate() {
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(producerConfigs()));
+    }
+
+    /**
+     * Recoverer publishing failed transaction records to the dead letter topic.
+     * Waits for the broker acknowledgment and throws if the publish fails, so
+     * callers only commit a failed record's offset once it is dead-lettered.
+     */
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer() {
+        return new DeadLetterPublishingRecoverer(deadLetterKafkaTemplate(),
+                (record, exception) -> new TopicPartition(KafkaConstants.TOPIC_DLQ, -1));
+    }
 }
@@ -0,0 +1,37 @@
+package com.fraud.engine.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Task Executors - Thread-per-task executors for long-running blocking work.
+ *
+ * With spring.threads.virtual.enabled on Java 21 or later each task runs on
+ * a virtual thread; otherwise, and on older runtimes, on a platform thread.
+ */
+@Slf4j
+public final class TaskExecutors {
+
+    private TaskExecutors() {
+    }
+
+    /**
+     * Create an executor that starts one named thread per task.
+     *
+     * @param threadNamePrefix Prefix of the thread names
+     * @param virtualThreads   Value of spring.threads.virtual.enabled
+     * @return The executor
+     */
+    public static SimpleAsyncTaskExecutor threadPerTask(String threadNamePrefix, boolean virtualThreads) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        if (virtualThreads) {
+            if (Runtime.version().feature() < 21) {
+                log.warn("Virtual threads require Java 21, running {} threads as platform threads",
+                        threadNamePrefix);
+            } else {
+                executor.setVirtualThreads(true);
+            }
+        }
+        return executor;
+    }
+}
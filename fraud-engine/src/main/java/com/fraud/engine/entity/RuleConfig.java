@@ -0,0 +1,58 @@
+package com.fraud.engine.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Rule Config Entity - Database definition of a fraud detection rule.
+ *
+ * Maintained by operators; the fraud engine only reads it.
+ */
+@Entity
+@Table(name = "rules_config", schema = "fraud")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleConfig {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rule_id", nullable = false, unique = true, length = 100)
+    private String ruleId;
+
+    @Column(name = "rule_name", nullable = false, length = 255)
+    private String ruleName;
+
+    @Column(name = "rule_type", nullable = false, length = 50)
+    private String ruleType;
+
+    @Column(name = "description", columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "condition_expression", columnDefinition = "TEXT")
+    private String conditionExpression;
+
+    @Column(name = "threshold_value", precision = 19, scale = 4)
+    private BigDecimal thresholdValue;
+
+    @Column(name = "severity", length = 20)
+    private String severity;
+
+    @Column(name = "is_active")
+    private Boolean isActive;
+
+    @Column(name = "priority")
+    private Integer priority;
+
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
@@ -2,7 +2,6 @@ package com.fraud.engine.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
@@ -22,7 +21,8 @@ import java.time.Instant;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_id_seq")
+    @SequenceGenerator(name = "transactions_id_seq", sequenceName = "transactions_id_seq", schema = "fraud", allocationSize = 50)
     private Long id;
 
     @Column(name = "transaction_id", nullable = false, unique = true, length = 100)
@@ -87,8 +87,10 @@ public class Transaction {
     @Column(name = "processing_time_ms")
     private Integer processingTimeMs;
 
-    @CreatedDate
-    @Column(name = "created_at", updatable = false)
+    /**
+     * Partition key, set from the event timestamp so a redelivered event maps to the same row key.
+     */
+    @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
     @LastModifiedDate
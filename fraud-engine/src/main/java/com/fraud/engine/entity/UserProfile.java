@@ -11,18 +11,21 @@ import java.time.Instant;
 
 /**
  * User Profile Entity - Stores user behavioral data for fraud detection.
+ *
+ * The 24h count and amount are stored decayed as of lastTransactionAt.
  */
 @Entity
 @Table(name = "user_profiles", schema = "fraud")
 @EntityListeners(AuditingEntityListener.class)
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserProfile {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_profiles_id_seq")
+    @SequenceGenerator(name = "user_profiles_id_seq", sequenceName = "user_profiles_id_seq", schema = "fraud", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false, unique = true, length = 100)
@@ -49,9 +52,9 @@ public class UserProfile {
     @Column(name = "last_transaction_at")
     private Instant lastTransactionAt;
 
-    @Column(name = "transaction_count_24h")
+    @Column(name = "transaction_count_24h", precision = 19, scale = 6)
     @Builder.Default
-    private Integer transactionCount24h = 0;
+    private BigDecimal transactionCount24h = BigDecimal.ZERO;
 
     @Column(name = "total_amount_24h", precision = 19, scale = 4)
     @Builder.Default
@@ -0,0 +1,183 @@
+package com.fraud.engine.feature;
+
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.cache.UserProfileCache;
+import com.fraud.engine.entity.UserProfile;
+import com.fraud.engine.repository.TransactionRepository;
+import com.fraud.engine.repository.UserActivityBucket;
+import com.fraud.engine.velocity.VelocityAggregator;
+import com.fraud.engine.velocity.VelocityDimension;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Feature Prefetcher - Loads per-user state for a batch before rule evaluation.
+ *
+ * Collects the distinct users of a batch and fetches their profiles in one
+ * lookup (cached profiles first, the rest with a single IN query) and their
+ * velocity from the in-memory aggregator. For users whose Kafka partition
+ * the aggregator has not observed for a whole velocity window, the window
+ * is also read from the durable hourly activity buckets (one query per
+ * batch) and the larger value is used, so neither a restart nor a
+ * rebalance resets velocity. The bucket containing the window start only
+ * partly lies in the window and counts pro rata. Each transaction gets its own
+ * FeatureSnapshot; later transactions of a user in the same batch see the
+ * earlier ones, as they would if processed one at a time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FeaturePrefetcher {
+
+    private static final Duration COUNT_WINDOW = Duration.ofHours(1);
+    private static final Duration AMOUNT_WINDOW = Duration.ofHours(24);
+    private static final long BUCKET_SECONDS = Duration.ofHours(1).toSeconds();
+
+    private final UserProfileCache userProfileCache;
+    private final VelocityAggregator velocityAggregator;
+    private final TransactionRepository transactionRepository;
+
+    /**
+     * Build the feature snapshot of a single transaction.
+     *
+     * @param event     The transaction
+     * @param partition The Kafka partition it was read from, or VelocityAggregator.NO_PARTITION
+     * @return Its feature snapshot
+     */
+    public FeatureSnapshot prefetch(TransactionEvent event, int partition) {
+        return prefetch(List.of(event), List.of(partition)).get(0);
+    }
+
+    /**
+     * Build feature snapshots for a batch of transactions.
+     *
+     * @param events     The transactions, in partition order
+     * @param partitions The partition each transaction was read from, indexed like the events
+     * @return One snapshot per transaction, indexed like the input
+     */
+    public List<FeatureSnapshot> prefetch(List<TransactionEvent> events, List<Integer> partitions) {
+        Map<String, Integer> partitionsByUser = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            String userId = events.get(i).getUserId();
+            if (userId != null && !userId.isBlank()) {
+                partitionsByUser.putIfAbsent(userId, partitions.get(i));
+            }
+        }
+        List<String> userIds = List.copyOf(partitionsByUser.keySet());
+
+        Map<String, UserProfile> profiles = userProfileCache.getAll(userIds);
+
+        Instant now = Instant.now();
+        Map<String, ActivityTotals> lastHour = bucketedActivity(partitionsByUser, COUNT_WINDOW, now);
+        Map<String, ActivityTotals> last24h = bucketedActivity(partitionsByUser, AMOUNT_WINDOW, now);
+        Map<String, FeatureSnapshot> latest = new HashMap<>(userIds.size());
+        List<FeatureSnapshot> snapshots = new ArrayList<>(events.size());
+        for (TransactionEvent event : events) {
+            String userId = event.getUserId();
+            if (userId == null || userId.isBlank()) {
+                snapshots.add(FeatureSnapshot.anonymous(userId));
+                continue;
+            }
+
+            FeatureSnapshot snapshot = latest.computeIfAbsent(userId, id ->
+                    baseline(id, profiles.get(id), lastHour.get(id), last24h.get(id)));
+            snapshots.add(snapshot);
+            latest.put(userId, snapshot.advance(event, now));
+        }
+
+        log.debug("Prefetched features for {} transactions of {} users ({} with profiles)",
+                events.size(), userIds.size(), profiles.size());
+
+        return snapshots;
+    }
+
+    /**
+     * Activity totals from the database of the users whose partition the aggregator
+     * has not fully observed over a window yet.
+     */
+    private Map<String, ActivityTotals> bucketedActivity(Map<String, Integer> partitionsByUser,
+                                                         Duration window, Instant now) {
+        List<String> unobserved = partitionsByUser.entrySet().stream()
+                .filter(entry -> !velocityAggregator.covers(window, entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (unobserved.isEmpty()) {
+            return Map.of();
+        }
+        Instant since = now.minus(window);
+        return windowTotals(transactionRepository.findActivityBucketsByUsersSince(unobserved, since), since);
+    }
+
+    /**
+     * Sum activity buckets per user over the period since a point in time. The bucket
+     * containing {@code since} is weighted by the share of its hour after {@code since},
+     * assuming its activity was spread evenly.
+     */
+    static Map<String, ActivityTotals> windowTotals(List<UserActivityBucket> buckets, Instant since) {
+        Map<String, BigDecimal> counts = new HashMap<>();
+        Map<String, BigDecimal> amounts = new HashMap<>();
+        long sinceSecond = since.getEpochSecond();
+        for (UserActivityBucket bucket : buckets) {
+            long secondsInWindow = Math.max(0, Math.min(BUCKET_SECONDS,
+                    bucket.getBucketStartEpochSecond() + BUCKET_SECONDS - sinceSecond));
+            counts.merge(bucket.getUserId(),
+                    proRata(BigDecimal.valueOf(bucket.getTransactionCount()), secondsInWindow), BigDecimal::add);
+            amounts.merge(bucket.getUserId(), proRata(bucket.getTotalAmount(), secondsInWindow), BigDecimal::add);
+        }
+
+        Map<String, ActivityTotals> totals = new HashMap<>(counts.size());
+        counts.forEach((userId, count) -> totals.put(userId, new ActivityTotals(
+                count.setScale(0, RoundingMode.HALF_UP).longValueExact(),
+                amounts.get(userId).setScale(4, RoundingMode.HALF_UP))));
+        return totals;
+    }
+
+    private static BigDecimal proRata(BigDecimal value, long secondsInWindow) {
+        return secondsInWindow == BUCKET_SECONDS
+                ? value
+                : value.multiply(BigDecimal.valueOf(secondsInWindow))
+                        .divide(BigDecimal.valueOf(BUCKET_SECONDS), 6, RoundingMode.HALF_UP);
+    }
+
+    private FeatureSnapshot baseline(String userId, UserProfile profile,
+                                     ActivityTotals lastHour, ActivityTotals last24h) {
+        long countLastHour = velocityAggregator.getCount(VelocityDimension.USER, userId, COUNT_WINDOW);
+        BigDecimal amountLast24h = velocityAggregator.getAmount(VelocityDimension.USER, userId, AMOUNT_WINDOW);
+        if (lastHour != null) {
+            countLastHour = Math.max(countLastHour, lastHour.transactionCount());
+        }
+        if (last24h != null) {
+            amountLast24h = amountLast24h.max(last24h.totalAmount());
+        }
+
+        FeatureSnapshot.FeatureSnapshotBuilder builder = FeatureSnapshot.builder()
+                .userId(userId)
+                .knownUser(profile != null)
+                .transactionCountLastHour(countLastHour)
+                .transactionAmountLast24h(amountLast24h);
+
+        if (profile != null) {
+            builder.lastKnownIp(profile.getLastKnownIp())
+                    .lastKnownLocation(profile.getLastKnownLocation())
+                    .lastTransactionAt(profile.getLastTransactionAt());
+        }
+        return builder.build();
+    }
+
+    /**
+     * A user's transaction count and amount over a velocity window.
+     */
+    record ActivityTotals(long transactionCount, BigDecimal totalAmount) {
+    }
+}
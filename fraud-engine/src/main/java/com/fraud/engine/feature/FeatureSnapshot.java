@@ -0,0 +1,66 @@
+package com.fraud.engine.feature;
+
+import com.fraud.common.dto.TransactionEvent;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Feature Snapshot - Immutable per-transaction view of the user's state.
+ *
+ * Built by the FeaturePrefetcher before the rules run, so rules read
+ * everything they need from here and never query a repository themselves.
+ * Reflects the user's profile and velocity as of just before the
+ * transaction, including earlier transactions of the same batch.
+ */
+@Getter
+@Builder(toBuilder = true)
+public final class FeatureSnapshot {
+
+    private final String userId;
+
+    /** Whether the user had any earlier activity to compare against. */
+    private final boolean knownUser;
+
+    private final String lastKnownIp;
+
+    private final String lastKnownLocation;
+
+    private final Instant lastTransactionAt;
+
+    /** User's transactions within the last hour. */
+    private final long transactionCountLastHour;
+
+    /** User's total transaction amount within the last 24 hours. */
+    private final BigDecimal transactionAmountLast24h;
+
+    /**
+     * Snapshot for a transaction without a usable user ID.
+     */
+    public static FeatureSnapshot anonymous(String userId) {
+        return FeatureSnapshot.builder()
+                .userId(userId)
+                .knownUser(false)
+                .transactionCountLastHour(0)
+                .transactionAmountLast24h(BigDecimal.ZERO)
+                .build();
+    }
+
+    /**
+     * Snapshot as the user's next transaction will see it once this one is applied.
+     */
+    FeatureSnapshot advance(TransactionEvent event, Instant now) {
+        return toBuilder()
+                .knownUser(true)
+                .lastKnownIp(event.getIpAddress())
+                .lastKnownLocation(event.getLocation())
+                .lastTransactionAt(now)
+                .transactionCountLastHour(transactionCountLastHour + 1)
+                .transactionAmountLast24h(event.getAmount() != null
+                        ? transactionAmountLast24h.add(event.getAmount())
+                        : transactionAmountLast24h)
+                .build();
+    }
+}
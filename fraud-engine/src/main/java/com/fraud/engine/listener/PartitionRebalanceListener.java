@@ -0,0 +1,70 @@
+package com.fraud.engine.listener;
+
+import com.fraud.engine.persistence.WriteBehindQueue;
+import com.fraud.engine.velocity.VelocityAggregator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Partition Rebalance Listener - Hands off per-partition state when partitions move.
+ *
+ * When partitions are revoked, waits for the write-behind queue to drain
+ * so the pending acknowledgments are committed by this consumer rather
+ * than the records being redelivered to the new owner.
+ *
+ * Also tells the velocity aggregator which partitions this instance owns,
+ * so users of a newly assigned partition are read from the durable activity
+ * buckets until the aggregator has observed them for a whole window.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private final WriteBehindQueue writeBehindQueue;
+    private final VelocityAggregator velocityAggregator;
+
+    @Value("${fraud.persistence.write-behind.rebalance-flush-timeout:10s}")
+    private Duration flushTimeout;
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        velocityAggregator.partitionsRevoked(partitionNumbers(partitions));
+
+        if (!writeBehindQueue.isEnabled() || partitions.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (!writeBehindQueue.awaitDrained(flushTimeout)) {
+                log.warn("Write-behind queue did not drain within {} before revoking {}; "
+                        + "uncommitted records will be redelivered", flushTimeout, partitions);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        velocityAggregator.partitionsRevoked(partitionNumbers(partitions));
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        velocityAggregator.partitionsAssigned(partitionNumbers(partitions));
+    }
+
+    private static List<Integer> partitionNumbers(Collection<TopicPartition> partitions) {
+        return partitions.stream().map(TopicPartition::partition).toList();
+    }
+}
@@ -0,0 +1,167 @@
+package com.fraud.engine.listener;
+
+import com.fraud.common.constants.KafkaConstants;
+import com.fraud.common.dto.FraudResult;
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.processor.BatchProcessingResult;
+import com.fraud.engine.processor.TransactionProcessor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transaction Batch Listener - Consumes transactions from Kafka in micro-batches.
+ *
+ * Receives the whole poll as one list, hands it to the TransactionProcessor
+ * as a single micro-batch and commits the offsets once per batch.
+ * Records that cannot be read, processed or persisted are dead-lettered
+ * first; the batch is only committed once every record is either durable
+ * or on the dead letter topic. An event without a receive time gets the
+ * Kafka record timestamp, which a redelivery repeats, so it is persisted
+ * with the same created_at.
+ * Active when fraud.processing.mode is "batch".
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "fraud.processing.mode", havingValue = "batch")
+public class TransactionBatchListener {
+
+    private final TransactionProcessor transactionProcessor;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
+
+    @KafkaListener(
+            topics = KafkaConstants.TOPIC_TRANSACTION_EVENTS,
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "batchKafkaListenerContainerFactory"
+    )
+    public void onTransactionBatch(
+            List<ConsumerRecord<String, TransactionEvent>> records,
+            Acknowledgment acknowledgment) {
+
+        log.info("Received batch of {} transactions", records.size());
+
+        List<ConsumerRecord<String, TransactionEvent>> processable = new ArrayList<>(records.size());
+        List<ConsumerRecord<String, TransactionEvent>> unreadable = new ArrayList<>();
+        for (ConsumerRecord<String, TransactionEvent> record : records) {
+            if (record.value() == null) {
+                // ErrorHandlingDeserializer hands us a null payload for unreadable records
+                log.error("Dead-lettering unreadable record from partition {} at offset {}",
+                        record.partition(), record.offset());
+                unreadable.add(record);
+            } else {
+                if (record.value().getReceivedAt() == null && record.timestamp() >= 0) {
+                    record.value().setReceivedAt(Instant.ofEpochMilli(record.timestamp()));
+                }
+                processable.add(record);
+            }
+        }
+
+        if (processable.isEmpty()) {
+            commitAfterDeadLettering(unreadable, List.of(), List.of(), acknowledgment);
+            return;
+        }
+
+        List<TransactionEvent> events = processable.stream()
+                .map(ConsumerRecord::value)
+                .toList();
+        List<Integer> partitions = processable.stream()
+                .map(ConsumerRecord::partition)
+                .toList();
+
+        // Commit the whole poll at once, after every decided transaction is written
+        // and every failed record is dead-lettered
+        try {
+            BatchProcessingResult result = transactionProcessor.processBatch(events, partitions);
+            result.getPersisted().whenComplete((ignored, error) -> {
+                List<Exception> failures = reportResults(processable, result);
+                commitAfterDeadLettering(unreadable, processable, failures, acknowledgment);
+            });
+
+        } catch (Exception e) {
+            log.error("Batch of {} transactions failed, falling back to per-record processing: {}",
+                    events.size(), e.getMessage(), e);
+            List<Exception> failures = processIndividually(processable);
+            commitAfterDeadLettering(unreadable, processable, failures, acknowledgment);
+        }
+    }
+
+    /**
+     * Dead-letter the failed records of a batch, then acknowledge the batch.
+     * If any record cannot be dead-lettered the batch stays unacknowledged:
+     * async acks keep it uncommitted, so it is redelivered after a restart
+     * or rebalance.
+     *
+     * @param unreadable Records that could not be deserialized
+     * @param processed  Records handed to the processor
+     * @param failures   The failure of each processed record, or null where it succeeded
+     */
+    private void commitAfterDeadLettering(List<ConsumerRecord<String, TransactionEvent>> unreadable,
+                                          List<ConsumerRecord<String, TransactionEvent>> processed,
+                                          List<Exception> failures,
+                                          Acknowledgment acknowledgment) {
+        try {
+            for (ConsumerRecord<String, TransactionEvent> record : unreadable) {
+                deadLetterRecoverer.accept(record, new IllegalStateException("Unreadable transaction record"));
+            }
+            for (int i = 0; i < processed.size(); i++) {
+                if (failures.get(i) != null) {
+                    deadLetterRecoverer.accept(processed.get(i), failures.get(i));
+                }
+            }
+            acknowledgment.acknowledge();
+
+        } catch (Exception e) {
+            log.error("Failed to dead-letter failed records, leaving batch of {} uncommitted: {}",
+                    unreadable.size() + processed.size(), e.getMessage(), e);
+        }
+    }
+
+    private List<Exception> reportResults(List<ConsumerRecord<String, TransactionEvent>> records,
+                                          BatchProcessingResult result) {
+        List<Exception> failures = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, TransactionEvent> record = records.get(i);
+            Exception failure = result.getFailure(i);
+            failures.add(failure);
+
+            if (failure != null) {
+                log.error("Failed to process transaction {} from partition {} at offset {}: {}",
+                        record.value().getTransactionId(), record.partition(), record.offset(),
+                        failure.getMessage(), failure);
+            }
+        }
+
+        log.info("Batch processed: {} succeeded, {} failed",
+                result.getSuccessCount(), result.getFailureCount());
+        return failures;
+    }
+
+    private List<Exception> processIndividually(List<ConsumerRecord<String, TransactionEvent>> records) {
+        List<Exception> failures = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, TransactionEvent> record : records) {
+            TransactionEvent event = record.value();
+            try {
+                FraudResult result = transactionProcessor.processTransaction(event, record.partition()).join();
+                log.debug("Successfully processed transaction {}: fraud={}, score={}",
+                        event.getTransactionId(), result.isFraud(), result.getFraudScore());
+                failures.add(null);
+
+            } catch (Exception e) {
+                log.error("Failed to process transaction {} from partition {} at offset {}: {}",
+                        event.getTransactionId(), record.partition(), record.offset(), e.getMessage(), e);
+                failures.add(e);
+            }
+        }
+        return failures;
+    }
+}
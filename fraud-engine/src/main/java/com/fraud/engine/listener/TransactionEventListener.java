@@ -1,30 +1,41 @@
 package com.fraud.engine.listener;
 
 import com.fraud.common.constants.KafkaConstants;
-import com.fraud.common.dto.FraudResult;
 import com.fraud.common.dto.TransactionEvent;
 import com.fraud.engine.processor.TransactionProcessor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+
 /**
  * Transaction Event Listener - Consumes transactions from Kafka.
  * 
  * Listens to the transaction-events topic and delegates processing
- * to the TransactionProcessor.
+ * to the TransactionProcessor. Active when fraud.processing.mode is
+ * "single" (the default).
+ *
+ * A record is acknowledged once its transaction is durable. Records that
+ * fail to process or persist are dead-lettered and acknowledged only once
+ * the dead letter topic has them.
+ *
+ * An event without a receive time gets the Kafka record timestamp, which a
+ * redelivery repeats, so it is persisted with the same created_at.
  */
 @Component
+@ConditionalOnProperty(name = "fraud.processing.mode", havingValue = "single", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionEventListener {
 
     private final TransactionProcessor transactionProcessor;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
 
     @KafkaListener(
             topics = KafkaConstants.TOPIC_TRANSACTION_EVENTS,
@@ -32,37 +43,54 @@ public class TransactionEventListener {
             containerFactory = "kafkaListenerContainerFactory"
     )
     public void onTransactionReceived(
-            @Payload TransactionEvent event,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            @Header(KafkaHeaders.RECEIVED_KEY) String key,
+            ConsumerRecord<String, TransactionEvent> record,
             Acknowledgment acknowledgment) {
+
+        TransactionEvent event = record.value();
+        int partition = record.partition();
+        if (event.getReceivedAt() == null && record.timestamp() >= 0) {
+            event.setReceivedAt(Instant.ofEpochMilli(record.timestamp()));
+        }
         
         log.info("Received transaction {} from partition {} at offset {} with key {}",
-                event.getTransactionId(), partition, offset, key);
+                event.getTransactionId(), partition, record.offset(), record.key());
 
         try {
-            // Process the transaction
-            FraudResult result = transactionProcessor.processTransaction(event);
-
-            // Acknowledge successful processing
-            acknowledgment.acknowledge();
-
-            log.info("Successfully processed transaction {}: fraud={}, score={}",
-                    event.getTransactionId(), result.isFraud(), result.getFraudScore());
+            // Process the transaction and acknowledge once it has been written;
+            // with write-behind enabled that happens on a writer thread
+            transactionProcessor.processTransaction(event, partition)
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            log.error("Failed to persist transaction {}: {}",
+                                    event.getTransactionId(), error.getMessage(), error);
+                            deadLetter(record, error, acknowledgment);
+                        } else {
+                            log.info("Successfully processed transaction {}: fraud={}, score={}",
+                                    event.getTransactionId(), result.isFraud(), result.getFraudScore());
+                            acknowledgment.acknowledge();
+                        }
+                    });
 
         } catch (Exception e) {
             log.error("Failed to process transaction {}: {}", 
                     event.getTransactionId(), e.getMessage(), e);
-            
-            // In a production system, you might:
-            // 1. Send to a dead letter topic
-            // 2. Retry with exponential backoff
-            // 3. Alert operations team
-            
-            // For now, acknowledge to prevent infinite reprocessing
-            // In production, implement proper error handling
+            deadLetter(record, e, acknowledgment);
+        }
+    }
+
+    /**
+     * Move a failed record to the dead letter topic and commit it only once it is there.
+     * If dead-lettering fails too, the record stays unacknowledged: async acks keep its
+     * offset uncommitted, so it is redelivered after a restart or rebalance.
+     */
+    private void deadLetter(ConsumerRecord<String, TransactionEvent> record, Throwable error,
+                            Acknowledgment acknowledgment) {
+        try {
+            deadLetterRecoverer.accept(record, error instanceof Exception e ? e : new IllegalStateException(error));
             acknowledgment.acknowledge();
+        } catch (Exception e) {
+            log.error("Failed to dead-letter transaction {} from partition {} at offset {}, leaving it uncommitted: {}",
+                    record.value().getTransactionId(), record.partition(), record.offset(), e.getMessage(), e);
         }
     }
 }
@@ -0,0 +1,28 @@
+package com.fraud.engine.model;
+
+/**
+ * Feature Scaler - Standard scaling as fitted by the training pipeline.
+ *
+ * Applies (x - mean) / scale per feature, matching sklearn's StandardScaler.
+ */
+final class FeatureScaler {
+
+    private final double[] mean;
+    private final double[] scale;
+
+    FeatureScaler(double[] mean, double[] scale) {
+        if (mean.length != scale.length) {
+            throw new IllegalArgumentException("Scaler mean and scale have different lengths");
+        }
+        this.mean = mean.clone();
+        this.scale = scale.clone();
+    }
+
+    int size() {
+        return mean.length;
+    }
+
+    double apply(int feature, double value) {
+        return (value - mean[feature]) / scale[feature];
+    }
+}
@@ -0,0 +1,178 @@
+package com.fraud.engine.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.common.dto.MLScoreRequest;
+import com.fraud.common.dto.MLScoreResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Local Model Scorer - Scores transactions with an in-process copy of the ML model.
+ *
+ * Loads the portable model exported by the ML service's training script
+ * and scores requests without a network call. The active model is held in
+ * an AtomicReference, so a new version can be swapped in while scoring
+ * continues; the model file is checked for changes periodically.
+ *
+ * Features are derived from the MLScoreRequest with the same defaults the
+ * ML service applies; its to_features() is the reference. Only a missing
+ * value takes a default, so hour 0 stays midnight.
+ */
+@Component
+@Slf4j
+public class LocalModelScorer {
+
+    private static final Map<String, ToDoubleFunction<MLScoreRequest>> FEATURES = Map.of(
+            "amount", r -> r.getAmount() != null ? r.getAmount().doubleValue() : 0.0,
+            "hour_of_day", r -> r.getHourOfDay() != null ? r.getHourOfDay() : 12,
+            "day_of_week", r -> r.getDayOfWeek() != null ? r.getDayOfWeek() : 3,
+            "is_weekend", r -> flag(r.getIsWeekend()),
+            "is_night_time", r -> flag(r.getIsNightTime()),
+            "transaction_count_last_24h", r -> r.getTransactionCountLast24h() != null ? r.getTransactionCountLast24h() : 0,
+            "total_amount_last_24h", r -> r.getTotalAmountLast24h() != null ? r.getTotalAmountLast24h().doubleValue() : 0.0,
+            "is_new_device", r -> flag(r.getIsNewDevice()),
+            "is_new_location", r -> flag(r.getIsNewLocation()),
+            "is_new_merchant", r -> flag(r.getIsNewMerchant())
+    );
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path modelPath;
+    private final AtomicReference<LoadedModel> current = new AtomicReference<>();
+
+    private volatile long loadedModifiedMillis;
+
+    public LocalModelScorer(
+            ObjectMapper objectMapper,
+            @Value("${ml.local.enabled:true}") boolean enabled,
+            @Value("${ml.local.model-path:model/fraud_model.json}") String modelPath) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.modelPath = Path.of(modelPath);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("Local ML scoring disabled, using the ML service");
+            return;
+        }
+        if (!Files.exists(modelPath)) {
+            log.warn("No exported model at {}, using the ML service until one appears", modelPath);
+            return;
+        }
+        reload();
+    }
+
+    /**
+     * Whether a local model is loaded and can score requests.
+     */
+    public boolean isAvailable() {
+        return current.get() != null;
+    }
+
+    /**
+     * Score a request with the active local model.
+     *
+     * @param request The scoring request
+     * @return ML score response
+     * @throws IllegalStateException if no local model is loaded
+     */
+    public MLScoreResponse score(MLScoreRequest request) {
+        LoadedModel loaded = current.get();
+        if (loaded == null) {
+            throw new IllegalStateException("No local model loaded");
+        }
+
+        long start = System.nanoTime();
+        double[] features = new double[loaded.extractors().length];
+        for (int i = 0; i < features.length; i++) {
+            features[i] = loaded.extractors()[i].applyAsDouble(request);
+        }
+
+        ScoringModel model = loaded.model();
+        double probability = model.score(features);
+        boolean isFraud = probability >= model.getThreshold();
+
+        return MLScoreResponse.builder()
+                .transactionId(request.getTransactionId())
+                .fraudProbability(BigDecimal.valueOf(probability).setScale(4, RoundingMode.HALF_UP))
+                .prediction(isFraud ? "FRAUD" : "LEGITIMATE")
+                .isFraud(isFraud)
+                .confidence(BigDecimal.valueOf(Math.abs(probability - 0.5) * 2).setScale(4, RoundingMode.HALF_UP))
+                .modelName(model.getModelName())
+                .modelVersion(model.getVersion())
+                .processingTimeMs((System.nanoTime() - start) / 1_000_000)
+                .threshold(BigDecimal.valueOf(model.getThreshold()))
+                .build();
+    }
+
+    /**
+     * Atomically replace the active model.
+     *
+     * @param model The model to score with from now on
+     * @throws IllegalArgumentException if the model uses a feature that cannot be derived
+     */
+    public void swap(ScoringModel model) {
+        String[] names = model.getFeatureNames();
+        @SuppressWarnings("unchecked")
+        ToDoubleFunction<MLScoreRequest>[] extractors = new ToDoubleFunction[names.length];
+        for (int i = 0; i < names.length; i++) {
+            extractors[i] = FEATURES.get(names[i]);
+            if (extractors[i] == null) {
+                throw new IllegalArgumentException("Unsupported model feature: " + names[i]);
+            }
+        }
+
+        LoadedModel previous = current.getAndSet(new LoadedModel(model, extractors));
+        log.info("Local model {} {} activated{}", model.getModelName(), model.getVersion(),
+                previous != null ? " (replacing " + previous.model().getVersion() + ")" : "");
+    }
+
+    /**
+     * Reload the model file if it changed since the last load attempt.
+     * A model that fails to load leaves the active model in place.
+     */
+    @Scheduled(fixedDelayString = "${ml.local.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        if (!enabled || !Files.exists(modelPath)) {
+            return;
+        }
+        try {
+            if (Files.getLastModifiedTime(modelPath).toMillis() != loadedModifiedMillis) {
+                reload();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to check local model {}: {}", modelPath, e.getMessage());
+        }
+    }
+
+    private synchronized void reload() {
+        try {
+            // Remember the attempt so a broken file is not retried until it changes again
+            loadedModifiedMillis = Files.getLastModifiedTime(modelPath).toMillis();
+            swap(ScoringModelLoader.load(objectMapper, modelPath));
+        } catch (Exception e) {
+            log.error("Failed to load local model from {}: {}", modelPath, e.getMessage());
+        }
+    }
+
+    private static double flag(Boolean value) {
+        return Boolean.TRUE.equals(value) ? 1.0 : 0.0;
+    }
+
+    private record LoadedModel(ScoringModel model, ToDoubleFunction<MLScoreRequest>[] extractors) {
+    }
+}
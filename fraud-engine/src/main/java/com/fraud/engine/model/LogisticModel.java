@@ -0,0 +1,57 @@
+package com.fraud.engine.model;
+
+/**
+ * Logistic Model - In-process logistic regression scoring.
+ *
+ * Computes sigmoid(intercept + coefficients . scaled features).
+ */
+final class LogisticModel implements ScoringModel {
+
+    private final String modelName;
+    private final String version;
+    private final double threshold;
+    private final String[] featureNames;
+    private final FeatureScaler scaler;
+    private final double[] coefficients;
+    private final double intercept;
+
+    LogisticModel(String modelName, String version, double threshold, String[] featureNames,
+                  FeatureScaler scaler, double[] coefficients, double intercept) {
+        this.modelName = modelName;
+        this.version = version;
+        this.threshold = threshold;
+        this.featureNames = featureNames.clone();
+        this.scaler = scaler;
+        this.coefficients = coefficients.clone();
+        this.intercept = intercept;
+    }
+
+    @Override
+    public double score(double[] features) {
+        double z = intercept;
+        for (int i = 0; i < coefficients.length; i++) {
+            z += coefficients[i] * scaler.apply(i, features[i]);
+        }
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+
+    @Override
+    public String[] getFeatureNames() {
+        return featureNames.clone();
+    }
+
+    @Override
+    public String getModelName() {
+        return modelName;
+    }
+
+    @Override
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public double getThreshold() {
+        return threshold;
+    }
+}
@@ -11,17 +11,22 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 
 /**
  * ML Model Client - Client for calling the ML scoring service.
  * 
  * Handles communication with the Python ML service for
- * fraud probability scoring.
+ * fraud probability scoring. When an exported model is loaded locally,
+ * transactions are scored in-process and the ML service is only called
+ * if local scoring fails. Remote requests are coalesced by the
+ * MLRequestCoalescer and scored via /predict/batch when batching is enabled.
  */
 @Service
 @RequiredArgsConstructor
@@ -29,6 +34,8 @@ import java.time.Instant;
 public class MLModelClient {
 
     private final WebClient mlServiceWebClient;
+    private final MLRequestCoalescer requestCoalescer;
+    private final LocalModelScorer localModelScorer;
 
     @Value("${ml.service.timeout:5000}")
     private int timeout;
@@ -36,6 +43,9 @@ public class MLModelClient {
     @Value("${ml.service.enabled:true}")
     private boolean enabled;
 
+    @Value("${ml.service.max-concurrent-requests:16}")
+    private int maxConcurrentRequests;
+
     /**
      * Get fraud score from ML model.
      *
@@ -48,19 +58,16 @@ public class MLModelClient {
             return getDefaultScore(event.getTransactionId());
         }
 
-        try {
-            MLScoreRequest request = buildRequest(event);
+        MLScoreRequest request = buildRequest(event);
+        MLScoreResponse localScore = scoreLocally(request);
+        if (localScore != null) {
+            return localScore;
+        }
 
+        try {
             log.debug("Calling ML service for transaction {}", event.getTransactionId());
 
-            MLScoreResponse response = mlServiceWebClient
-                    .post()
-                    .uri("/predict")
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(MLScoreResponse.class)
-                    .timeout(Duration.ofMillis(timeout))
-                    .block();
+            MLScoreResponse response = requestScore(request).block();
 
             if (response != null) {
                 log.info("ML score for transaction {}: probability={}, prediction={}",
@@ -95,14 +102,12 @@ public class MLModelClient {
         }
 
         MLScoreRequest request = buildRequest(event);
+        MLScoreResponse localScore = scoreLocally(request);
+        if (localScore != null) {
+            return Mono.just(localScore);
+        }
 
-        return mlServiceWebClient
-                .post()
-                .uri("/predict")
-                .bodyValue(request)
-                .retrieve()
-                .bodyToMono(MLScoreResponse.class)
-                .timeout(Duration.ofMillis(timeout))
+        return requestScore(request)
                 .onErrorResume(e -> {
                     log.error("Async ML service error for transaction {}: {}",
                             event.getTransactionId(), e.getMessage());
@@ -110,6 +115,59 @@ public class MLModelClient {
                 });
     }
 
+    /**
+     * Get fraud scores for a batch of transactions asynchronously.
+     *
+     * Requests are issued concurrently and the scores are returned in the
+     * order of the input. Failed requests resolve to the default score.
+     * With batching enabled all requests are queued at once so they share
+     * as few batch calls as possible.
+     *
+     * @param events The transactions to score
+     * @return Mono with one ML score response per event
+     */
+    public Mono<List<MLScoreResponse>> getScoresAsync(List<TransactionEvent> events) {
+        int concurrency = requestCoalescer.isEnabled()
+                ? Math.max(events.size(), 1)
+                : maxConcurrentRequests;
+
+        return Flux.fromIterable(events)
+                .flatMapSequential(this::getScoreAsync, concurrency)
+                .collectList();
+    }
+
+    /**
+     * Score with the local model, or return null if it is unavailable or fails.
+     */
+    private MLScoreResponse scoreLocally(MLScoreRequest request) {
+        if (!localModelScorer.isAvailable()) {
+            return null;
+        }
+        try {
+            return localModelScorer.score(request);
+        } catch (Exception e) {
+            log.warn("Local scoring failed for transaction {}, calling ML service: {}",
+                    request.getTransactionId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Request a score, through the coalescer when batching is enabled.
+     */
+    private Mono<MLScoreResponse> requestScore(MLScoreRequest request) {
+        Mono<MLScoreResponse> response = requestCoalescer.isEnabled()
+                ? Mono.fromFuture(() -> requestCoalescer.submit(request))
+                : mlServiceWebClient
+                        .post()
+                        .uri("/predict")
+                        .bodyValue(request)
+                        .retrieve()
+                        .bodyToMono(MLScoreResponse.class);
+
+        return response.timeout(Duration.ofMillis(timeout));
+    }
+
     /**
      * Build ML score request from transaction event.
      */
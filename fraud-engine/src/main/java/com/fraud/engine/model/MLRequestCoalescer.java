@@ -0,0 +1,196 @@
+package com.fraud.engine.model;
+
+import com.fraud.common.dto.MLBatchScoreRequest;
+import com.fraud.common.dto.MLBatchScoreResponse;
+import com.fraud.common.dto.MLScoreRequest;
+import com.fraud.common.dto.MLScoreResponse;
+import com.fraud.common.exception.MLServiceException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ML Request Coalescer - Groups concurrent scoring requests into batch calls.
+ *
+ * Callers submit single requests and get a future back. A dispatcher thread
+ * collects queued requests until it has max-size of them or max-wait-micros
+ * have passed since the first one arrived, sends them to /predict/batch and
+ * completes each future with its own score. Requests that queued up while a
+ * batch was being sent go out together in the next one.
+ *
+ * At most max-concurrent-requests batches are in flight; the dispatcher
+ * waits for a free slot before sending the next batch.
+ */
+@Component
+@Slf4j
+public class MLRequestCoalescer {
+
+    private final WebClient mlServiceWebClient;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final int timeout;
+    private final Semaphore inFlightBatches;
+    private final DistributionSummary batchSizes;
+    private final BlockingQueue<PendingScore> queue = new LinkedBlockingQueue<>();
+
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public MLRequestCoalescer(
+            WebClient mlServiceWebClient,
+            @Value("${ml.service.batch.enabled:true}") boolean enabled,
+            @Value("${ml.service.batch.max-size:64}") int maxBatchSize,
+            @Value("${ml.service.batch.max-wait-micros:500}") long maxWaitMicros,
+            @Value("${ml.service.timeout:5000}") int timeout,
+            @Value("${ml.service.max-concurrent-requests:16}") int maxConcurrentRequests,
+            MeterRegistry meterRegistry) {
+
+        this.mlServiceWebClient = mlServiceWebClient;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.timeout = timeout;
+        this.inFlightBatches = new Semaphore(maxConcurrentRequests);
+        this.batchSizes = DistributionSummary.builder("fraud.ml.batch.size")
+                .description("Number of scoring requests sent per ML batch call")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "ml-request-coalescer");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("ML request coalescing enabled: max {} requests or {} us per batch",
+                maxBatchSize, TimeUnit.NANOSECONDS.toMicros(maxWaitNanos));
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        List<PendingScore> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        failAll(remaining, new MLServiceException("ML request coalescer stopped"));
+    }
+
+    /**
+     * Queue a scoring request for the next batch.
+     *
+     * @param request The scoring request
+     * @return Future completed with the score, or exceptionally if the batch call fails
+     */
+    public CompletableFuture<MLScoreResponse> submit(MLScoreRequest request) {
+        PendingScore pending = new PendingScore(request, new CompletableFuture<>());
+        if (!running) {
+            pending.future().completeExceptionally(new MLServiceException("ML request coalescer is not running"));
+            return pending.future();
+        }
+        queue.add(pending);
+        return pending.future();
+    }
+
+    private void dispatchLoop() {
+        List<PendingScore> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    // Past the deadline, still take whatever is already queued
+                    PendingScore next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                inFlightBatches.acquire();
+                send(batch);
+                batch = new ArrayList<>(maxBatchSize);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failAll(batch, new MLServiceException("ML request coalescer stopped"));
+                return;
+            } catch (Exception e) {
+                log.error("Failed to dispatch ML batch of {} requests: {}", batch.size(), e.getMessage(), e);
+                failAll(batch, e);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+    }
+
+    private void send(List<PendingScore> batch) {
+        MLBatchScoreRequest request = MLBatchScoreRequest.builder()
+                .transactions(batch.stream().map(PendingScore::request).toList())
+                .build();
+
+        batchSizes.record(batch.size());
+        log.debug("Sending ML batch of {} requests", batch.size());
+
+        mlServiceWebClient
+                .post()
+                .uri("/predict/batch")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(MLBatchScoreResponse.class)
+                .timeout(Duration.ofMillis(timeout))
+                .switchIfEmpty(Mono.error(new MLServiceException("Empty response from ML batch endpoint")))
+                .doFinally(signal -> inFlightBatches.release())
+                .subscribe(
+                        response -> complete(batch, response),
+                        error -> failAll(batch, error));
+    }
+
+    private void complete(List<PendingScore> batch, MLBatchScoreResponse response) {
+        List<MLScoreResponse> predictions = response.getPredictions();
+        if (predictions == null || predictions.size() != batch.size()) {
+            failAll(batch, new MLServiceException("ML batch endpoint returned "
+                    + (predictions == null ? 0 : predictions.size()) + " scores for " + batch.size() + " requests"));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future().complete(predictions.get(i));
+        }
+    }
+
+    private void failAll(List<PendingScore> batch, Throwable error) {
+        for (PendingScore pending : batch) {
+            pending.future().completeExceptionally(error);
+        }
+    }
+
+    private record PendingScore(MLScoreRequest request, CompletableFuture<MLScoreResponse> future) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.fraud.engine.model;
+
+/**
+ * Scoring Model - A fraud model evaluated in-process.
+ *
+ * Implementations are immutable, so a loaded model can be shared by any
+ * number of threads and replaced atomically.
+ */
+public interface ScoringModel {
+
+    /**
+     * Score a raw feature vector.
+     *
+     * @param features Unscaled feature values, in the order of {@link #getFeatureNames()}
+     * @return Fraud probability between 0 and 1
+     */
+    double score(double[] features);
+
+    String[] getFeatureNames();
+
+    String getModelName();
+
+    String getVersion();
+
+    double getThreshold();
+}
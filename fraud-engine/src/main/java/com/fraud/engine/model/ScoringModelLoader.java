@@ -0,0 +1,120 @@
+package com.fraud.engine.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Scoring Model Loader - Reads models exported by train_model.py.
+ *
+ * Supports the TREE_ENSEMBLE and LOGISTIC export types. Node indexes of
+ * each tree are rebased so the whole ensemble shares one set of arrays.
+ */
+final class ScoringModelLoader {
+
+    private ScoringModelLoader() {
+    }
+
+    static ScoringModel load(ObjectMapper objectMapper, Path path) throws IOException {
+        JsonNode root = objectMapper.readTree(path.toFile());
+
+        String type = requireText(root, "type");
+        String modelName = root.path("modelName").asText("FraudDetector");
+        String version = requireText(root, "version");
+        double threshold = root.path("threshold").asDouble(0.5);
+        String[] featureNames = objectMapper.convertValue(require(root, "featureNames"), String[].class);
+
+        JsonNode scalerNode = require(root, "scaler");
+        FeatureScaler scaler = new FeatureScaler(
+                toDoubles(require(scalerNode, "mean")),
+                toDoubles(require(scalerNode, "scale")));
+        if (scaler.size() != featureNames.length) {
+            throw new IOException("Scaler covers " + scaler.size() + " features, model has " + featureNames.length);
+        }
+
+        return switch (type) {
+            case "TREE_ENSEMBLE" -> loadTreeEnsemble(root, modelName, version, threshold, featureNames, scaler);
+            case "LOGISTIC" -> loadLogistic(root, modelName, version, threshold, featureNames, scaler);
+            default -> throw new IOException("Unsupported model type: " + type);
+        };
+    }
+
+    private static ScoringModel loadTreeEnsemble(JsonNode root, String modelName, String version, double threshold,
+                                                 String[] featureNames, FeatureScaler scaler) throws IOException {
+        JsonNode trees = require(root, "trees");
+        if (trees.isEmpty()) {
+            throw new IOException("Tree ensemble has no trees");
+        }
+
+        int totalNodes = 0;
+        for (JsonNode tree : trees) {
+            totalNodes += require(tree, "left").size();
+        }
+
+        int[] roots = new int[trees.size()];
+        int[] feature = new int[totalNodes];
+        double[] splitThreshold = new double[totalNodes];
+        int[] left = new int[totalNodes];
+        int[] right = new int[totalNodes];
+        double[] value = new double[totalNodes];
+
+        int offset = 0;
+        for (int t = 0; t < trees.size(); t++) {
+            JsonNode tree = trees.get(t);
+            int nodes = tree.get("left").size();
+            roots[t] = offset;
+
+            for (int n = 0; n < nodes; n++) {
+                int i = offset + n;
+                int leftChild = tree.get("left").get(n).asInt();
+                int rightChild = tree.get("right").get(n).asInt();
+                left[i] = leftChild < 0 ? -1 : offset + leftChild;
+                right[i] = rightChild < 0 ? -1 : offset + rightChild;
+                feature[i] = tree.get("feature").get(n).asInt();
+                splitThreshold[i] = tree.get("threshold").get(n).asDouble();
+                value[i] = tree.get("value").get(n).asDouble();
+
+                if (left[i] >= 0 && (feature[i] < 0 || feature[i] >= featureNames.length)) {
+                    throw new IOException("Tree " + t + " node " + n + " splits on unknown feature " + feature[i]);
+                }
+            }
+            offset += nodes;
+        }
+
+        return new TreeEnsembleModel(modelName, version, threshold, featureNames, scaler,
+                roots, feature, splitThreshold, left, right, value);
+    }
+
+    private static ScoringModel loadLogistic(JsonNode root, String modelName, String version, double threshold,
+                                             String[] featureNames, FeatureScaler scaler) throws IOException {
+        double[] coefficients = toDoubles(require(root, "coefficients"));
+        if (coefficients.length != featureNames.length) {
+            throw new IOException("Model has " + coefficients.length + " coefficients for "
+                    + featureNames.length + " features");
+        }
+        return new LogisticModel(modelName, version, threshold, featureNames, scaler,
+                coefficients, require(root, "intercept").asDouble());
+    }
+
+    private static JsonNode require(JsonNode node, String field) throws IOException {
+        JsonNode value = node.get(field);
+        if (value == null || value.isNull()) {
+            throw new IOException("Missing field in exported model: " + field);
+        }
+        return value;
+    }
+
+    private static String requireText(JsonNode node, String field) throws IOException {
+        return require(node, field).asText();
+    }
+
+    private static double[] toDoubles(JsonNode array) {
+        double[] values = new double[array.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = array.get(i).asDouble();
+        }
+        return values;
+    }
+}
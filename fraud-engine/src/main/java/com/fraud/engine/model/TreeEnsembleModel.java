@@ -0,0 +1,83 @@
+package com.fraud.engine.model;
+
+/**
+ * Tree Ensemble Model - In-process random forest scoring.
+ *
+ * All trees are packed into flat node arrays so a prediction walks
+ * primitive arrays without allocation. The fraud probability is the mean
+ * of the leaf probabilities reached in each tree, as in sklearn's
+ * RandomForestClassifier.predict_proba.
+ */
+final class TreeEnsembleModel implements ScoringModel {
+
+    private static final int LEAF = -1;
+
+    private final String modelName;
+    private final String version;
+    private final double threshold;
+    private final String[] featureNames;
+    private final FeatureScaler scaler;
+
+    private final int[] roots;
+    private final int[] feature;
+    private final double[] splitThreshold;
+    private final int[] left;
+    private final int[] right;
+    private final double[] value;
+
+    TreeEnsembleModel(String modelName, String version, double threshold, String[] featureNames,
+                      FeatureScaler scaler, int[] roots, int[] feature, double[] splitThreshold,
+                      int[] left, int[] right, double[] value) {
+        this.modelName = modelName;
+        this.version = version;
+        this.threshold = threshold;
+        this.featureNames = featureNames.clone();
+        this.scaler = scaler;
+        this.roots = roots;
+        this.feature = feature;
+        this.splitThreshold = splitThreshold;
+        this.left = left;
+        this.right = right;
+        this.value = value;
+    }
+
+    @Override
+    public double score(double[] features) {
+        // sklearn casts the features to float32 and compares them, widened back
+        // to double, against the float64 thresholds
+        float[] scaled = new float[features.length];
+        for (int i = 0; i < features.length; i++) {
+            scaled[i] = (float) scaler.apply(i, features[i]);
+        }
+
+        double sum = 0.0;
+        for (int root : roots) {
+            int node = root;
+            while (left[node] != LEAF) {
+                node = (double) scaled[feature[node]] <= splitThreshold[node] ? left[node] : right[node];
+            }
+            sum += value[node];
+        }
+        return sum / roots.length;
+    }
+
+    @Override
+    public String[] getFeatureNames() {
+        return featureNames.clone();
+    }
+
+    @Override
+    public String getModelName() {
+        return modelName;
+    }
+
+    @Override
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public double getThreshold() {
+        return threshold;
+    }
+}
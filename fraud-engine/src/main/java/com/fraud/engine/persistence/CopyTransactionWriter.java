@@ -0,0 +1,174 @@
+package com.fraud.engine.persistence;
+
+import com.fraud.common.exception.FraudDetectionException;
+import com.fraud.engine.entity.Transaction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Copy Transaction Writer - Streams transactions into PostgreSQL with binary COPY.
+ *
+ * Rows are encoded straight onto the COPY stream of the connection bound
+ * to the current database transaction; ids and updated_at come from the
+ * column defaults. COPY fails as a whole if any row conflicts, so it
+ * runs under a savepoint: on a unique violation (typically a redelivered
+ * record) the batch is rolled back to the savepoint and written with
+ * INSERT ... ON CONFLICT DO NOTHING instead.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "fraud.persistence.writer", havingValue = "copy")
+public class CopyTransactionWriter implements TransactionWriter {
+
+    private static final String COLUMNS = "transaction_id, amount, currency, user_id, merchant_id, merchant_name, "
+            + "merchant_category, location, ip_address, device_id, card_type, card_last_four, transaction_type, "
+            + "channel, status, is_fraud, fraud_score, fraud_reason, rules_triggered, processing_time_ms, processed_at, "
+            + "created_at";
+    private static final int COLUMN_COUNT = 22;
+
+    private static final String COPY_SQL =
+            "COPY fraud.transactions (" + COLUMNS + ") FROM STDIN (FORMAT binary)";
+    private static final String INSERT_SQL =
+            "INSERT INTO fraud.transactions (" + COLUMNS + ") VALUES ("
+                    + String.join(", ", Collections.nCopies(COLUMN_COUNT, "?"))
+                    + ") ON CONFLICT (transaction_id, created_at) DO NOTHING";
+
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final DataSource dataSource;
+
+    @Override
+    public void write(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                copy(connection, transactions);
+                connection.releaseSavepoint(savepoint);
+                log.debug("Copied {} transactions", transactions.size());
+
+            } catch (SQLException | IOException e) {
+                if (!UNIQUE_VIOLATION.equals(sqlStateOf(e))) {
+                    throw e;
+                }
+                connection.rollback(savepoint);
+                insertSkippingConflicts(connection, transactions);
+                log.warn("COPY of {} transactions hit an existing row, inserted them skipping duplicates",
+                        transactions.size());
+            }
+
+        } catch (SQLException | IOException e) {
+            throw new FraudDetectionException("PERSISTENCE_ERROR",
+                    "Failed to write " + transactions.size() + " transactions", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private void copy(Connection connection, List<Transaction> transactions) throws SQLException, IOException {
+        PGCopyOutputStream copyOut = new PGCopyOutputStream(
+                connection.unwrap(PGConnection.class), COPY_SQL, COPY_BUFFER_SIZE);
+        try {
+            PgBinaryCopyEncoder encoder = new PgBinaryCopyEncoder(copyOut);
+            for (Transaction transaction : transactions) {
+                encoder.startRow(COLUMN_COUNT);
+                encoder.writeText(transaction.getTransactionId());
+                encoder.writeNumeric(transaction.getAmount());
+                encoder.writeText(transaction.getCurrency());
+                encoder.writeText(transaction.getUserId());
+                encoder.writeText(transaction.getMerchantId());
+                encoder.writeText(transaction.getMerchantName());
+                encoder.writeText(transaction.getMerchantCategory());
+                encoder.writeText(transaction.getLocation());
+                encoder.writeText(transaction.getIpAddress());
+                encoder.writeText(transaction.getDeviceId());
+                encoder.writeText(transaction.getCardType());
+                encoder.writeText(transaction.getCardLastFour());
+                encoder.writeText(transaction.getTransactionType());
+                encoder.writeText(transaction.getChannel());
+                encoder.writeText(transaction.getStatus());
+                encoder.writeBoolean(transaction.getIsFraud());
+                encoder.writeNumeric(transaction.getFraudScore());
+                encoder.writeText(transaction.getFraudReason());
+                encoder.writeTextArray(transaction.getRulesTriggered());
+                encoder.writeInteger(transaction.getProcessingTimeMs());
+                encoder.writeTimestamp(transaction.getProcessedAt());
+                encoder.writeTimestamp(transaction.getCreatedAt());
+            }
+            encoder.finish();
+            copyOut.endCopy();
+        } finally {
+            if (copyOut.isActive()) {
+                copyOut.cancelCopy();
+            }
+        }
+    }
+
+    private void insertSkippingConflicts(Connection connection, List<Transaction> transactions) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (Transaction transaction : transactions) {
+                int i = 1;
+                statement.setString(i++, transaction.getTransactionId());
+                statement.setBigDecimal(i++, transaction.getAmount());
+                statement.setString(i++, transaction.getCurrency());
+                statement.setString(i++, transaction.getUserId());
+                statement.setString(i++, transaction.getMerchantId());
+                statement.setString(i++, transaction.getMerchantName());
+                statement.setString(i++, transaction.getMerchantCategory());
+                statement.setString(i++, transaction.getLocation());
+                statement.setString(i++, transaction.getIpAddress());
+                statement.setString(i++, transaction.getDeviceId());
+                statement.setString(i++, transaction.getCardType());
+                statement.setString(i++, transaction.getCardLastFour());
+                statement.setString(i++, transaction.getTransactionType());
+                statement.setString(i++, transaction.getChannel());
+                statement.setString(i++, transaction.getStatus());
+                statement.setObject(i++, transaction.getIsFraud(), Types.BOOLEAN);
+                statement.setBigDecimal(i++, transaction.getFraudScore());
+                statement.setString(i++, transaction.getFraudReason());
+                statement.setArray(i++, transaction.getRulesTriggered() != null
+                        ? connection.createArrayOf("text", transaction.getRulesTriggered())
+                        : null);
+                statement.setObject(i++, transaction.getProcessingTimeMs(), Types.INTEGER);
+                statement.setTimestamp(i++, transaction.getProcessedAt() != null
+                        ? Timestamp.from(transaction.getProcessedAt())
+                        : null);
+                statement.setTimestamp(i, Timestamp.from(transaction.getCreatedAt()));
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+        }
+    }
+
+    private static String sqlStateOf(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
+}
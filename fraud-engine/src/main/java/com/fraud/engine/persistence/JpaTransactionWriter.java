@@ -0,0 +1,27 @@
+package com.fraud.engine.persistence;
+
+import com.fraud.engine.entity.Transaction;
+import com.fraud.engine.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * JPA Transaction Writer - Inserts transactions through the JPA repository.
+ *
+ * Inserts are flushed as JDBC batches at commit.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "fraud.persistence.writer", havingValue = "jpa", matchIfMissing = true)
+public class JpaTransactionWriter implements TransactionWriter {
+
+    private final TransactionRepository transactionRepository;
+
+    @Override
+    public void write(List<Transaction> transactions) {
+        transactionRepository.saveAll(transactions);
+    }
+}
@@ -0,0 +1,171 @@
+package com.fraud.engine.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PG Binary Copy Encoder - Writes rows in PostgreSQL's binary COPY format.
+ *
+ * Supports the column types of the transactions table: text, boolean,
+ * int4, numeric, timestamptz and text[]. Null values are written as a
+ * field length of -1.
+ */
+final class PgBinaryCopyEncoder {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final long POSTGRES_EPOCH_SECONDS = 946_684_800L;
+    private static final int TEXT_OID = 25;
+    private static final short NUMERIC_POSITIVE = 0x0000;
+    private static final short NUMERIC_NEGATIVE = 0x4000;
+    private static final BigInteger NBASE = BigInteger.valueOf(10_000);
+
+    private final DataOutputStream out;
+
+    PgBinaryCopyEncoder(OutputStream target) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(target, 64 * 1024));
+        out.write(SIGNATURE);
+        out.writeInt(0);    // flags
+        out.writeInt(0);    // header extension length
+    }
+
+    void startRow(int fieldCount) throws IOException {
+        out.writeShort(fieldCount);
+    }
+
+    void writeText(String value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    void writeBoolean(Boolean value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        out.writeInt(1);
+        out.writeByte(value ? 1 : 0);
+    }
+
+    void writeInteger(Integer value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        out.writeInt(4);
+        out.writeInt(value);
+    }
+
+    void writeTimestamp(Instant value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        long micros = (value.getEpochSecond() - POSTGRES_EPOCH_SECONDS) * 1_000_000L + value.getNano() / 1_000;
+        out.writeInt(8);
+        out.writeLong(micros);
+    }
+
+    /**
+     * Write a numeric as base-10000 digit groups with weight, sign and display scale.
+     */
+    void writeNumeric(BigDecimal value) throws IOException {
+        if (value == null) {
+            writeNull();
+            return;
+        }
+        if (value.scale() < 0) {
+            value = value.setScale(0);
+        }
+
+        int scale = value.scale();
+        // Align the decimal point to a digit group boundary
+        int padding = (4 - scale % 4) % 4;
+        BigInteger unscaled = value.unscaledValue().abs().multiply(BigInteger.TEN.pow(padding));
+        int fractionalGroups = (scale + padding) / 4;
+
+        List<Short> groups = new ArrayList<>();
+        while (unscaled.signum() > 0) {
+            BigInteger[] divRem = unscaled.divideAndRemainder(NBASE);
+            groups.add(0, divRem[1].shortValue());
+            unscaled = divRem[0];
+        }
+        int weight = groups.size() - fractionalGroups - 1;
+        while (!groups.isEmpty() && groups.get(groups.size() - 1) == 0) {
+            groups.remove(groups.size() - 1);
+        }
+        if (groups.isEmpty()) {
+            weight = 0;
+        }
+
+        out.writeInt(8 + 2 * groups.size());
+        out.writeShort(groups.size());
+        out.writeShort(weight);
+        out.writeShort(value.signum() < 0 ? NUMERIC_NEGATIVE : NUMERIC_POSITIVE);
+        out.writeShort(scale);
+        for (short group : groups) {
+            out.writeShort(group);
+        }
+    }
+
+    void writeTextArray(String[] values) throws IOException {
+        if (values == null) {
+            writeNull();
+            return;
+        }
+
+        byte[][] elements = new byte[values.length][];
+        boolean hasNull = false;
+        int length = values.length == 0 ? 12 : 20;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                hasNull = true;
+                length += 4;
+            } else {
+                elements[i] = values[i].getBytes(StandardCharsets.UTF_8);
+                length += 4 + elements[i].length;
+            }
+        }
+
+        out.writeInt(length);
+        out.writeInt(values.length == 0 ? 0 : 1);   // dimensions
+        out.writeInt(hasNull ? 1 : 0);
+        out.writeInt(TEXT_OID);
+        if (values.length > 0) {
+            out.writeInt(values.length);
+            out.writeInt(1);                          // lower bound
+        }
+        for (byte[] element : elements) {
+            if (element == null) {
+                writeNull();
+            } else {
+                out.writeInt(element.length);
+                out.write(element);
+            }
+        }
+    }
+
+    /**
+     * Write the trailer and flush everything to the target stream.
+     */
+    void finish() throws IOException {
+        out.writeShort(-1);
+        out.flush();
+    }
+
+    private void writeNull() throws IOException {
+        out.writeInt(-1);
+    }
+}
@@ -0,0 +1,222 @@
+package com.fraud.engine.persistence;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Transaction Partition Manager - Maintains the daily partitions of fraud.transactions.
+ *
+ * Creates partitions premake-days ahead so inserts never fall through to the
+ * default partition, and removes partitions whose whole day is older than
+ * the retention period: "detach" keeps them as standalone tables for
+ * archiving, "drop" deletes them. Runs at startup and then on a schedule.
+ *
+ * Every partition is created or expired in its own transaction under an
+ * advisory lock, so one failing day does not hold back the others and
+ * several engine instances never maintain the same partition at once.
+ * Rows that fell through to the default partition are moved into their
+ * day's partition when it is created, which Postgres would otherwise
+ * refuse; those older than the retention period are expired like a
+ * partition, into transactions_default_expired for "detach".
+ */
+@Component
+@Slf4j
+public class TransactionPartitionManager {
+
+    private static final String PARENT = "fraud.transactions";
+    private static final String DEFAULT_PARTITION = "fraud.transactions_default";
+    private static final String DEFAULT_EXPIRED = "fraud.transactions_default_expired";
+    private static final String PARTITION_PREFIX = "transactions_p";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final long ADVISORY_LOCK_KEY = PARENT.hashCode();
+
+    private static final String LIST_PARTITIONS_SQL = """
+            SELECT child.relname
+            FROM pg_inherits i
+            JOIN pg_class parent ON parent.oid = i.inhparent
+            JOIN pg_class child ON child.oid = i.inhrelid
+            JOIN pg_namespace ns ON ns.oid = parent.relnamespace
+            WHERE ns.nspname = 'fraud' AND parent.relname = 'transactions'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int premakeDays;
+    private final int retentionDays;
+    private final String retentionAction;
+
+    public TransactionPartitionManager(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${fraud.partitions.enabled:true}") boolean enabled,
+            @Value("${fraud.partitions.premake-days:7}") int premakeDays,
+            @Value("${fraud.partitions.retention-days:90}") int retentionDays,
+            @Value("${fraud.partitions.retention-action:detach}") String retentionAction) {
+
+        if (!"detach".equals(retentionAction) && !"drop".equals(retentionAction)) {
+            throw new IllegalArgumentException("fraud.partitions.retention-action must be detach or drop, got "
+                    + retentionAction);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.premakeDays = premakeDays;
+        this.retentionDays = retentionDays;
+        this.retentionAction = retentionAction;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("Transaction partition maintenance disabled");
+            return;
+        }
+        maintain();
+    }
+
+    /**
+     * Create upcoming partitions and expire old ones. Failures are logged and retried on the next run.
+     */
+    @Scheduled(cron = "${fraud.partitions.maintenance-cron:0 15 * * * *}", zone = "UTC")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            LocalDate oldestKept = today.minusDays(retentionDays);
+            LocalDate lastDay = today.plusDays(premakeDays);
+
+            Set<LocalDate> days = new TreeSet<>();
+            for (LocalDate day = today; !day.isAfter(lastDay); day = day.plusDays(1)) {
+                days.add(day);
+            }
+            // Days within retention that already have rows in the default partition
+            days.addAll(jdbcTemplate.queryForList("SELECT DISTINCT (created_at AT TIME ZONE 'UTC')::date FROM "
+                    + DEFAULT_PARTITION + inDays(oldestKept, lastDay.plusDays(1)), LocalDate.class));
+
+            for (LocalDate day : days) {
+                inOwnTransaction("create partition for " + day, () -> createPartition(day));
+            }
+
+            for (String partition : jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class)) {
+                // A partition expires once its whole day is older than the retention period
+                LocalDate day = dayOf(partition);
+                if (day != null && day.isBefore(oldestKept)) {
+                    inOwnTransaction("expire partition " + partition, () -> expirePartition(partition));
+                }
+            }
+            inOwnTransaction("expire default partition rows", () -> expireDefaultRows(oldestKept));
+
+            Long future = jdbcTemplate.queryForObject("SELECT count(*) FROM " + DEFAULT_PARTITION
+                    + " WHERE created_at >= " + bound(lastDay.plusDays(1)), Long.class);
+            if (future != null && future > 0) {
+                log.warn("{} transactions in the default partition are dated after {}", future, lastDay);
+            }
+        } catch (Exception e) {
+            log.error("Transaction partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void inOwnTransaction(String description, Runnable step) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.queryForObject("SELECT count(*) FROM (SELECT pg_advisory_xact_lock(?)) AS lock",
+                        Long.class, ADVISORY_LOCK_KEY);
+                step.run();
+            });
+        } catch (Exception e) {
+            log.error("Transaction partition maintenance failed to {}: {}", description, e.getMessage(), e);
+        }
+    }
+
+    private void createPartition(LocalDate day) {
+        String partition = "fraud." + partitionName(day);
+        String create = "CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + PARENT
+                + " FOR VALUES FROM (" + bound(day) + ") TO (" + bound(day.plusDays(1)) + ")";
+        String inDay = inDays(day, day.plusDays(1));
+
+        Long stray = jdbcTemplate.queryForObject("SELECT count(*) FROM " + DEFAULT_PARTITION + inDay, Long.class);
+        if (stray == null || stray == 0) {
+            jdbcTemplate.execute(create);
+            return;
+        }
+
+        // The new partition's range must not match rows of the default partition
+        jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN SHARE ROW EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TEMPORARY TABLE transactions_moved ON COMMIT DROP AS "
+                + "WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + inDay + " RETURNING *) SELECT * FROM moved");
+        jdbcTemplate.execute(create);
+        jdbcTemplate.execute("INSERT INTO " + PARENT + " SELECT * FROM transactions_moved");
+        log.warn("Moved {} transactions of {} from the default partition into {}", stray, day, partition);
+    }
+
+    private void expirePartition(String partition) {
+        List<String> attached = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+        if (!attached.contains(partition)) {
+            // Expired by another instance since the partitions were listed
+            return;
+        }
+
+        jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION fraud." + partition);
+        if ("drop".equals(retentionAction)) {
+            jdbcTemplate.execute("DROP TABLE fraud." + partition);
+        }
+        log.info("Expired transaction partition {} ({})", partition, retentionAction);
+    }
+
+    private void expireDefaultRows(LocalDate oldestKept) {
+        String expired = " WHERE created_at < " + bound(oldestKept);
+        int rows;
+        if ("drop".equals(retentionAction)) {
+            rows = jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION + expired);
+        } else {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_EXPIRED + " (LIKE " + PARENT + ")");
+            rows = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + expired
+                    + " RETURNING *) INSERT INTO " + DEFAULT_EXPIRED + " SELECT * FROM moved");
+        }
+        if (rows > 0) {
+            log.info("Expired {} transactions from the default partition ({})", rows, retentionAction);
+        }
+    }
+
+    private static String inDays(LocalDate from, LocalDate until) {
+        return " WHERE created_at >= " + bound(from) + " AND created_at < " + bound(until);
+    }
+
+    private static String bound(LocalDate day) {
+        return "'" + day + " 00:00:00+00'";
+    }
+
+    private static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(SUFFIX);
+    }
+
+    /**
+     * Day covered by a managed partition, or null for the default partition and foreign tables.
+     */
+    private static LocalDate dayOf(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.fraud.engine.persistence;
+
+import com.fraud.common.dto.FraudResult;
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.cache.UserProfileCache;
+import com.fraud.engine.entity.Transaction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transaction Persistence Service - Write stage of the fraud detection pipeline.
+ *
+ * Persists decided transactions and applies them to user profiles. Each
+ * method is its own short database transaction, so a pooled connection is
+ * only held for the writes and never across rule evaluation or ML calls.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionPersistenceService {
+
+    private final TransactionWriter transactionWriter;
+    private final UserProfileWriter userProfileWriter;
+    private final UserActivityWriter userActivityWriter;
+    private final UserProfileCache userProfileCache;
+
+    @Value("${fraud.persistence.max-future-skew:5m}")
+    private Duration maxFutureSkew;
+
+    /**
+     * Persist a decided transaction and update its user's profile.
+     *
+     * @param event  The processed transaction event
+     * @param result The fraud decision for the event
+     * @return The persisted transaction
+     */
+    @Transactional
+    public Transaction persist(TransactionEvent event, FraudResult result) {
+        Transaction transaction = buildTransaction(event, result);
+        transactionWriter.write(List.of(transaction));
+        updateUserProfile(event);
+        return transaction;
+    }
+
+    /**
+     * Persist a batch of decided transactions and update the affected user profiles.
+     * Transactions are inserted by the configured TransactionWriter.
+     *
+     * @param events  The processed transaction events, in partition order
+     * @param results The fraud decisions, indexed like the events
+     */
+    @Transactional
+    public void persistBatch(List<TransactionEvent> events, List<FraudResult> results) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<Transaction> transactions = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            transactions.add(buildTransaction(events.get(i), results.get(i)));
+        }
+        transactionWriter.write(transactions);
+
+        updateUserProfiles(events);
+
+        log.debug("Persisted batch of {} transactions", events.size());
+    }
+
+    private Transaction buildTransaction(TransactionEvent event, FraudResult result) {
+        return Transaction.builder()
+                .transactionId(event.getTransactionId())
+                .amount(event.getAmount())
+                .currency(event.getCurrency())
+                .userId(event.getUserId())
+                .merchantId(event.getMerchantId())
+                .merchantName(event.getMerchantName())
+                .merchantCategory(event.getMerchantCategory())
+                .location(event.getLocation())
+                .ipAddress(event.getIpAddress())
+                .deviceId(event.getDeviceId())
+                .cardType(event.getCardType())
+                .cardLastFour(event.getCardLastFour())
+                .transactionType(event.getTransactionType())
+                .channel(event.getChannel())
+                .status(result.isFraud() ? "FLAGGED" : "APPROVED")
+                .isFraud(result.isFraud())
+                .fraudScore(result.getFraudScore())
+                // Explanations are rendered on demand, so only pay for the flagged ones
+                .fraudReason(result.isFraud() ? result.getReason() : null)
+                .rulesTriggered(result.getTriggeredRules().toArray(new String[0]))
+                .processingTimeMs(result.getProcessingTimeMs().intValue())
+                .processedAt(Instant.now())
+                .createdAt(createdAt(event))
+                .build();
+    }
+
+    /**
+     * Event time of a transaction. A missing timestamp, or one further past the time the
+     * transaction was received than clock skew explains, is replaced by the receive time,
+     * so a bad timestamp cannot land beyond the premade partitions. The listeners fill in
+     * the receive time from the Kafka record, so a redelivery gets the same created_at and
+     * matches the row already written.
+     */
+    private Instant createdAt(TransactionEvent event) {
+        Instant receivedAt = event.getReceivedAt() != null ? event.getReceivedAt() : Instant.now();
+        Instant timestamp = event.getTimestamp();
+        if (timestamp == null) {
+            return receivedAt;
+        }
+        if (timestamp.isAfter(receivedAt.plus(maxFutureSkew))) {
+            log.warn("Transaction {} is dated {}, after it was received; persisting it as {}",
+                    event.getTransactionId(), timestamp, receivedAt);
+            return receivedAt;
+        }
+        return timestamp;
+    }
+
+    /**
+     * Update user profile with latest transaction data.
+     */
+    private void updateUserProfile(TransactionEvent event) {
+        updateUserProfiles(List.of(event));
+    }
+
+    /**
+     * Upsert the profiles and hourly activity buckets of every user in a batch.
+     * The users stay locked in the cache until the transaction completes, so the
+     * returned profiles are published in commit order.
+     */
+    private void updateUserProfiles(List<TransactionEvent> events) {
+        List<String> userIds = events.stream()
+                .map(TransactionEvent::getUserId)
+                .distinct()
+                .toList();
+
+        userProfileCache.lockUntilCompletion(userIds);
+        userProfileCache.putAfterCommit(userProfileWriter.apply(events));
+        userActivityWriter.record(events);
+    }
+}
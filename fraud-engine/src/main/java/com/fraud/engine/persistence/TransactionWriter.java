@@ -0,0 +1,22 @@
+package com.fraud.engine.persistence;
+
+import com.fraud.engine.entity.Transaction;
+
+import java.util.List;
+
+/**
+ * Transaction Writer - Strategy for inserting decided transactions.
+ *
+ * Selected with fraud.persistence.writer: "jpa" (default) for batched JPA
+ * inserts, "copy" for PostgreSQL binary COPY. Implementations join the
+ * caller's database transaction.
+ */
+public interface TransactionWriter {
+
+    /**
+     * Insert the given transactions.
+     *
+     * @param transactions New transactions, in the order they were decided
+     */
+    void write(List<Transaction> transactions);
+}
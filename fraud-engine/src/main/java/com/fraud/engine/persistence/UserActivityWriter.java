@@ -0,0 +1,124 @@
+package com.fraud.engine.persistence;
+
+import com.fraud.common.dto.TransactionEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * User Activity Writer - Maintains the hourly per-user activity buckets.
+ *
+ * Adds the count and amount of decided transactions to
+ * fraud.user_activity_buckets, keyed by user and the hour of the event
+ * timestamp, with one upsert per batch. Rows are upserted in key order so
+ * concurrent batches lock them in the same order. Buckets older than the
+ * retention period are purged periodically.
+ */
+@Component
+@Slf4j
+public class UserActivityWriter {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO fraud.user_activity_buckets AS b (user_id, bucket_start, transaction_count, total_amount)
+            SELECT u.user_id, u.bucket_start::timestamptz, u.transaction_count, u.total_amount
+            FROM unnest(?::text[], ?::text[], ?::int[], ?::numeric[])
+                    AS u(user_id, bucket_start, transaction_count, total_amount)
+            ON CONFLICT (user_id, bucket_start) DO UPDATE SET
+                transaction_count = b.transaction_count + EXCLUDED.transaction_count,
+                total_amount = b.total_amount + EXCLUDED.total_amount
+            """;
+
+    private static final String PURGE_SQL =
+            "DELETE FROM fraud.user_activity_buckets WHERE bucket_start < CAST(? AS timestamptz)";
+
+    private static final Comparator<BucketKey> KEY_ORDER =
+            Comparator.comparing(BucketKey::userId).thenComparing(BucketKey::bucketStart);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+
+    public UserActivityWriter(
+            JdbcTemplate jdbcTemplate,
+            @Value("${fraud.activity-buckets.retention:48h}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = retention;
+    }
+
+    /**
+     * Add transactions to their users' activity buckets in the current database transaction.
+     *
+     * @param events The processed transaction events
+     */
+    public void record(List<TransactionEvent> events) {
+        Map<BucketKey, Bucket> buckets = new TreeMap<>(KEY_ORDER);
+        for (TransactionEvent event : events) {
+            Instant occurredAt = event.getTimestamp() != null ? event.getTimestamp() : Instant.now();
+            BucketKey key = new BucketKey(event.getUserId(), occurredAt.truncatedTo(ChronoUnit.HOURS));
+            buckets.computeIfAbsent(key, k -> new Bucket()).add(event.getAmount());
+        }
+        if (buckets.isEmpty()) {
+            return;
+        }
+
+        int size = buckets.size();
+        String[] userIds = new String[size];
+        String[] bucketStarts = new String[size];
+        Integer[] counts = new Integer[size];
+        BigDecimal[] amounts = new BigDecimal[size];
+        int i = 0;
+        for (Map.Entry<BucketKey, Bucket> entry : buckets.entrySet()) {
+            userIds[i] = entry.getKey().userId();
+            bucketStarts[i] = entry.getKey().bucketStart().toString();
+            counts[i] = entry.getValue().count;
+            amounts[i] = entry.getValue().amount;
+            i++;
+        }
+
+        jdbcTemplate.update(UPSERT_SQL, statement -> {
+            Connection connection = statement.getConnection();
+            statement.setArray(1, connection.createArrayOf("text", userIds));
+            statement.setArray(2, connection.createArrayOf("text", bucketStarts));
+            statement.setArray(3, connection.createArrayOf("int4", counts));
+            statement.setArray(4, connection.createArrayOf("numeric", amounts));
+        });
+    }
+
+    /**
+     * Delete buckets that fell out of the retention period.
+     */
+    @Scheduled(fixedDelayString = "${fraud.activity-buckets.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            Instant cutoff = Instant.now().minus(retention).truncatedTo(ChronoUnit.HOURS);
+            int purged = jdbcTemplate.update(PURGE_SQL, cutoff.toString());
+            log.debug("Purged {} user activity buckets older than {}", purged, cutoff);
+        } catch (Exception e) {
+            log.warn("Failed to purge user activity buckets: {}", e.getMessage());
+        }
+    }
+
+    private record BucketKey(String userId, Instant bucketStart) {
+    }
+
+    private static final class Bucket {
+        private int count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        void add(BigDecimal transactionAmount) {
+            count++;
+            amount = amount.add(transactionAmount);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.fraud.engine.persistence;
+
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.entity.UserProfile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * User Profile Writer - Applies transactions to user profiles with a single upsert.
+ *
+ * All users of a batch are written by one INSERT ... ON CONFLICT (user_id)
+ * DO UPDATE statement, so a profile is created or updated atomically in one
+ * round trip and concurrent first transactions of a user cannot race.
+ *
+ * The 24h counters decay linearly with the time since the previous
+ * transaction: a profile last touched 6 hours ago keeps 75% of its count
+ * and amount before the new transactions are added, and one idle for a day
+ * or more starts from zero. The count is kept fractional like the amount so
+ * that repeated decay does not round it away.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserProfileWriter {
+
+    private static final String DECAY_FACTOR = "COALESCE(LEAST(1, GREATEST(0, 1 - EXTRACT(EPOCH FROM "
+            + "EXCLUDED.last_transaction_at - p.last_transaction_at) / 86400)), 0)";
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO fraud.user_profiles AS p (user_id, last_known_ip, last_known_location,
+                    last_transaction_at, transaction_count_24h, total_amount_24h, created_at, updated_at)
+            SELECT u.user_id, u.ip_address, u.location, ?, u.transaction_count, u.total_amount, ?, ?
+            FROM unnest(?::text[], ?::text[], ?::text[], ?::int[], ?::numeric[])
+                    AS u(user_id, ip_address, location, transaction_count, total_amount)
+            ON CONFLICT (user_id) DO UPDATE SET
+                last_known_ip = EXCLUDED.last_known_ip,
+                last_known_location = EXCLUDED.last_known_location,
+                last_transaction_at = EXCLUDED.last_transaction_at,
+                transaction_count_24h = COALESCE(p.transaction_count_24h, 0) * %1$s
+                        + EXCLUDED.transaction_count_24h,
+                total_amount_24h = COALESCE(p.total_amount_24h, 0) * %1$s + EXCLUDED.total_amount_24h,
+                updated_at = EXCLUDED.updated_at
+            RETURNING id, user_id, email, phone, country, typical_transaction_amount, last_known_ip,
+                    last_known_location, last_transaction_at, transaction_count_24h, total_amount_24h,
+                    risk_score, created_at, updated_at
+            """.formatted(DECAY_FACTOR);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Apply transactions to their users' profiles in the current database transaction.
+     *
+     * @param events The processed transaction events, in partition order
+     * @return The updated profiles, one per user
+     */
+    public List<UserProfile> apply(List<TransactionEvent> events) {
+        Map<String, ProfileDelta> deltas = new LinkedHashMap<>();
+        for (TransactionEvent event : events) {
+            deltas.computeIfAbsent(event.getUserId(), userId -> new ProfileDelta()).add(event);
+        }
+
+        int size = deltas.size();
+        String[] userIds = deltas.keySet().toArray(new String[0]);
+        String[] ipAddresses = new String[size];
+        String[] locations = new String[size];
+        Integer[] counts = new Integer[size];
+        BigDecimal[] amounts = new BigDecimal[size];
+        int i = 0;
+        for (ProfileDelta delta : deltas.values()) {
+            ipAddresses[i] = delta.ipAddress;
+            locations[i] = delta.location;
+            counts[i] = delta.count;
+            amounts[i] = delta.amount;
+            i++;
+        }
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<UserProfile> profiles = jdbcTemplate.query(UPSERT_SQL, statement -> {
+            Connection connection = statement.getConnection();
+            statement.setObject(1, now);
+            statement.setObject(2, now);
+            statement.setObject(3, now);
+            statement.setArray(4, connection.createArrayOf("text", userIds));
+            statement.setArray(5, connection.createArrayOf("text", ipAddresses));
+            statement.setArray(6, connection.createArrayOf("text", locations));
+            statement.setArray(7, connection.createArrayOf("int4", counts));
+            statement.setArray(8, connection.createArrayOf("numeric", amounts));
+        }, (rs, rowNum) -> mapProfile(rs));
+
+        log.debug("Upserted {} user profiles for {} transactions", profiles.size(), events.size());
+        return profiles;
+    }
+
+    private UserProfile mapProfile(ResultSet rs) throws SQLException {
+        return UserProfile.builder()
+                .id(rs.getLong("id"))
+                .userId(rs.getString("user_id"))
+                .email(rs.getString("email"))
+                .phone(rs.getString("phone"))
+                .country(rs.getString("country"))
+                .typicalTransactionAmount(rs.getBigDecimal("typical_transaction_amount"))
+                .lastKnownIp(rs.getString("last_known_ip"))
+                .lastKnownLocation(rs.getString("last_known_location"))
+                .lastTransactionAt(instant(rs, "last_transaction_at"))
+                .transactionCount24h(rs.getBigDecimal("transaction_count_24h"))
+                .totalAmount24h(rs.getBigDecimal("total_amount_24h"))
+                .riskScore(rs.getBigDecimal("risk_score"))
+                .createdAt(instant(rs, "created_at"))
+                .updatedAt(instant(rs, "updated_at"))
+                .build();
+    }
+
+    private static Instant instant(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value != null ? value.toInstant() : null;
+    }
+
+    /**
+     * Transactions of one user within a batch; the latest event wins for IP and location.
+     */
+    private static final class ProfileDelta {
+        private String ipAddress;
+        private String location;
+        private int count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        void add(TransactionEvent event) {
+            ipAddress = event.getIpAddress();
+            location = event.getLocation();
+            count++;
+            amount = amount.add(event.getAmount());
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.fraud.engine.persistence;
+
+import com.fraud.common.dto.FraudResult;
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.config.TaskExecutors;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-Behind Queue - Persists decided transactions off the decision path.
+ *
+ * Decided transactions are queued per Kafka partition: each partition maps
+ * to one bounded shard drained by its own writer thread, so writes of a
+ * partition happen in offset order. Writer threads persist whatever has
+ * queued up as one batch through TransactionPersistenceService and complete
+ * each caller's future once its write is durable, which is when the caller
+ * may commit the offset. A full shard blocks the submitting consumer
+ * thread, pushing back on Kafka polling. With spring.threads.virtual.enabled
+ * the writer threads are virtual threads, so a writer blocked on JDBC does
+ * not hold a platform thread.
+ *
+ * On shutdown the queue stops after the listener containers and drains
+ * everything already queued. Writes that completed after a container
+ * stopped have no consumer left to commit their offsets and are
+ * redelivered on restart.
+ */
+@Component
+@Slf4j
+public class WriteBehindQueue implements SmartLifecycle {
+
+    private final TransactionPersistenceService persistenceService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Duration shutdownTimeout;
+    private final List<BlockingQueue<PendingWrite>> shards;
+    private final AtomicLong pending = new AtomicLong();
+    private final Object drainMonitor = new Object();
+    private final AsyncTaskExecutor writerExecutor;
+    private final List<Future<?>> writers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public WriteBehindQueue(
+            TransactionPersistenceService persistenceService,
+            MeterRegistry meterRegistry,
+            @Value("${fraud.persistence.write-behind.enabled:false}") boolean enabled,
+            @Value("${fraud.persistence.write-behind.shards:3}") int shardCount,
+            @Value("${fraud.persistence.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${fraud.persistence.write-behind.max-batch-size:500}") int maxBatchSize,
+            @Value("${fraud.persistence.write-behind.shutdown-timeout:30s}") Duration shutdownTimeout,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+
+        this.persistenceService = persistenceService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.shutdownTimeout = shutdownTimeout;
+        this.writerExecutor = TaskExecutors.threadPerTask("write-behind-", virtualThreads);
+        this.shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+
+        Gauge.builder("fraud.persistence.write-behind.pending", pending, AtomicLong::get)
+                .description("Decided transactions not yet durably written")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue a decided transaction for writing, blocking while its shard is full.
+     *
+     * @param partition The Kafka partition the transaction was read from
+     * @param event     The processed transaction event
+     * @param result    The fraud decision for the event
+     * @return Future completed once the write is durable, or exceptionally if it failed
+     */
+    public CompletableFuture<Void> submit(int partition, TransactionEvent event, FraudResult result) {
+        if (!running) {
+            throw new IllegalStateException("Write-behind queue is not running");
+        }
+
+        PendingWrite write = new PendingWrite(event, result, new CompletableFuture<>());
+        pending.incrementAndGet();
+        try {
+            shards.get(Math.floorMod(partition, shards.size())).put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            completed(1);
+            throw new IllegalStateException("Interrupted while queueing transaction " + event.getTransactionId(), e);
+        }
+        return write.durable();
+    }
+
+    /**
+     * Wait until every write submitted so far has completed.
+     *
+     * @param timeout Maximum time to wait
+     * @return true if the queue drained in time
+     */
+    public boolean awaitDrained(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (drainMonitor) {
+            while (pending.get() > 0) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    return false;
+                }
+                drainMonitor.wait(remainingMillis);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        for (BlockingQueue<PendingWrite> shard : shards) {
+            writers.add(writerExecutor.submit(() -> drainLoop(shard)));
+        }
+        log.info("Write-behind persistence enabled with {} shards of {} and batches of up to {}",
+                shards.size(), shards.get(0).remainingCapacity(), maxBatchSize);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        log.info("Flushing {} queued transaction writes", pending.get());
+
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (Future<?> writer : writers) {
+            try {
+                writer.get(Math.max(1, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Reported below with the number of unwritten transactions
+            } catch (ExecutionException e) {
+                log.error("Write-behind writer failed: {}", e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (pending.get() > 0) {
+            log.error("Write-behind queue stopped with {} transactions unwritten; they will be redelivered",
+                    pending.get());
+        }
+        writers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the Kafka listener containers so nothing is queued once draining starts.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 200;
+    }
+
+    private void drainLoop(BlockingQueue<PendingWrite> shard) {
+        List<PendingWrite> batch = new ArrayList<>(maxBatchSize);
+        while (running || !shard.isEmpty()) {
+            try {
+                PendingWrite first = shard.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                shard.drainTo(batch, maxBatchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        List<TransactionEvent> events = new ArrayList<>(batch.size());
+        List<FraudResult> results = new ArrayList<>(batch.size());
+        for (PendingWrite write : batch) {
+            events.add(write.event());
+            results.add(write.result());
+        }
+
+        try {
+            persistenceService.persistBatch(events, results);
+            batch.forEach(write -> write.durable().complete(null));
+
+        } catch (Exception e) {
+            log.warn("Write-behind batch of {} transactions failed, writing them individually: {}",
+                    batch.size(), e.getMessage());
+            for (PendingWrite write : batch) {
+                try {
+                    persistenceService.persist(write.event(), write.result());
+                    write.durable().complete(null);
+                } catch (Exception recordFailure) {
+                    write.durable().completeExceptionally(recordFailure);
+                }
+            }
+        } finally {
+            completed(batch.size());
+        }
+    }
+
+    private void completed(int count) {
+        if (pending.addAndGet(-count) == 0) {
+            synchronized (drainMonitor) {
+                drainMonitor.notifyAll();
+            }
+        }
+    }
+
+    private record PendingWrite(TransactionEvent event, FraudResult result, CompletableFuture<Void> durable) {
+    }
+}
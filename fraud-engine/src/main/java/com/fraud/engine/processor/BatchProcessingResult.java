@@ -0,0 +1,82 @@
+package com.fraud.engine.processor;
+
+import com.fraud.common.dto.FraudResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Batch Processing Result - Per-record outcome of a processed micro-batch.
+ *
+ * Results and failures are indexed by the position of the event in the
+ * submitted batch so callers can map them back to their Kafka records.
+ * With write-behind persistence, failures can still be recorded from
+ * writer threads until {@link #getPersisted()} completes.
+ */
+public class BatchProcessingResult {
+
+    private final List<FraudResult> results;
+    private final Map<Integer, Exception> failures;
+    private CompletableFuture<Void> persisted = CompletableFuture.completedFuture(null);
+
+    BatchProcessingResult(int size) {
+        this.results = new ArrayList<>(Collections.nCopies(size, null));
+        this.failures = new HashMap<>();
+    }
+
+    synchronized void recordSuccess(int index, FraudResult result) {
+        results.set(index, result);
+    }
+
+    synchronized void recordFailure(int index, Exception failure) {
+        results.set(index, null);
+        failures.put(index, failure);
+    }
+
+    /**
+     * Get the fraud result of the event at the given index.
+     *
+     * @param index Position of the event in the batch
+     * @return The result, or null if the event failed
+     */
+    public synchronized FraudResult getResult(int index) {
+        return results.get(index);
+    }
+
+    /**
+     * Get the failure of the event at the given index.
+     *
+     * @param index Position of the event in the batch
+     * @return The failure, or null if the event succeeded
+     */
+    public synchronized Exception getFailure(int index) {
+        return failures.get(index);
+    }
+
+    public synchronized int getSuccessCount() {
+        return results.size() - failures.size();
+    }
+
+    public synchronized int getFailureCount() {
+        return failures.size();
+    }
+
+    void setPersisted(CompletableFuture<Void> persisted) {
+        this.persisted = persisted;
+    }
+
+    /**
+     * Get the future that completes once every decided event of the batch has
+     * been written or has had its write failure recorded. Already complete
+     * unless write-behind persistence is enabled.
+     *
+     * @return Future completed when the batch is durable
+     */
+    public CompletableFuture<Void> getPersisted() {
+        return persisted;
+    }
+}
@@ -2,31 +2,43 @@ package com.fraud.engine.processor;
 
 import com.fraud.common.constants.KafkaConstants;
 import com.fraud.common.dto.*;
-import com.fraud.engine.entity.Transaction;
-import com.fraud.engine.entity.UserProfile;
+import com.fraud.engine.feature.FeaturePrefetcher;
+import com.fraud.engine.feature.FeatureSnapshot;
 import com.fraud.engine.model.MLModelClient;
-import com.fraud.engine.repository.TransactionRepository;
-import com.fraud.engine.repository.UserProfileRepository;
+import com.fraud.engine.persistence.TransactionPersistenceService;
+import com.fraud.engine.persistence.WriteBehindQueue;
+import com.fraud.engine.rules.RiskScores;
 import com.fraud.engine.rules.RuleChain;
+import com.fraud.engine.velocity.VelocityAggregator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Transaction Processor - Core processing logic for fraud detection.
  * 
  * Orchestrates the complete fraud detection pipeline:
- * 1. Apply rule-based checks
+ * 1. Prefetch per-user features and apply rule-based checks
  * 2. Get ML model score
  * 3. Combine results and make decision
  * 4. Persist transaction and publish alerts
+ *
+ * In pipelined mode (the default) the ML request is sent before the rules
+ * run, so decision latency is close to the slower of the two rather than
+ * their sum.
+ *
+ * The decision stage runs outside any database transaction; only the
+ * final write in TransactionPersistenceService holds a connection. With
+ * write-behind enabled, the write is handed to the WriteBehindQueue and
+ * the decision is returned without waiting for it.
  */
 @Service
 @RequiredArgsConstructor
@@ -34,54 +46,89 @@ import java.util.UUID;
 public class TransactionProcessor {
 
     private final RuleChain ruleChain;
+    private final FeaturePrefetcher featurePrefetcher;
     private final MLModelClient mlModelClient;
-    private final TransactionRepository transactionRepository;
-    private final UserProfileRepository userProfileRepository;
+    private final TransactionPersistenceService persistenceService;
+    private final WriteBehindQueue writeBehindQueue;
+    private final VelocityAggregator velocityAggregator;
     private final KafkaTemplate<String, FraudAlert> alertKafkaTemplate;
 
-    private static final BigDecimal ML_WEIGHT = new BigDecimal("0.4");
-    private static final BigDecimal RULES_WEIGHT = new BigDecimal("0.6");
+    // Weights in tenths; combined scores are computed in tenths of a basis point
+    private static final int ML_WEIGHT = 4;
+    private static final int RULES_WEIGHT = 6;
+
+    @Value("${fraud.processing.pipelined:true}")
+    private boolean pipelined;
 
     /**
      * Process a transaction through the fraud detection pipeline.
+     * The transaction is persisted before this method returns.
      *
      * @param event The transaction event to process
      * @return FraudResult with the detection outcome
      */
-    @Transactional
     public FraudResult processTransaction(TransactionEvent event) {
+        return processNow(event, VelocityAggregator.NO_PARTITION);
+    }
+
+    private FraudResult processNow(TransactionEvent event, int partition) {
         long startTime = System.currentTimeMillis();
         
         log.info("Processing transaction: {}", event.getTransactionId());
 
         try {
-            // Step 1: Execute rule-based checks
-            FraudResult ruleResult = ruleChain.executeRules(event);
+            FraudResult finalResult = decide(event, partition, startTime);
 
-            // Step 2: Get ML model score
-            MLScoreResponse mlScore = mlModelClient.getScore(event);
+            // Step 5: Persist transaction and update user profile
+            persistenceService.persist(event, finalResult);
 
-            // Step 3: Combine results
-            FraudResult finalResult = combineResults(event, ruleResult, mlScore, startTime);
+            // Step 6: Publish alert if fraud detected
+            if (finalResult.isFraud()) {
+                publishFraudAlert(event, finalResult);
+            }
 
-            // Step 4: Persist transaction
-            Transaction transaction = persistTransaction(event, finalResult);
+            logProcessed(event, finalResult);
+            return finalResult;
 
-            // Step 5: Update user profile
-            updateUserProfile(event);
+        } catch (Exception e) {
+            log.error("Error processing transaction {}: {}", event.getTransactionId(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Process a transaction read from the given Kafka partition.
+     *
+     * With write-behind enabled the write is queued and the decision is made
+     * and published without waiting for it; otherwise this behaves like
+     * {@link #processTransaction(TransactionEvent)}.
+     *
+     * @param event     The transaction event to process
+     * @param partition The partition the event was read from
+     * @return Future completed with the result once the transaction is durable
+     */
+    public CompletableFuture<FraudResult> processTransaction(TransactionEvent event, int partition) {
+        if (!writeBehindQueue.isEnabled()) {
+            return CompletableFuture.completedFuture(processNow(event, partition));
+        }
+
+        long startTime = System.currentTimeMillis();
+
+        log.info("Processing transaction: {}", event.getTransactionId());
+
+        try {
+            FraudResult finalResult = decide(event, partition, startTime);
+
+            // Step 5: Queue the write; the offset may be committed once it completes
+            CompletableFuture<Void> durable = writeBehindQueue.submit(partition, event, finalResult);
 
             // Step 6: Publish alert if fraud detected
             if (finalResult.isFraud()) {
                 publishFraudAlert(event, finalResult);
             }
 
-            log.info("Transaction {} processed: fraud={}, score={}, time={}ms",
-                    event.getTransactionId(),
-                    finalResult.isFraud(),
-                    finalResult.getFraudScore(),
-                    finalResult.getProcessingTimeMs());
-
-            return finalResult;
+            logProcessed(event, finalResult);
+            return durable.thenApply(ignored -> finalResult);
 
         } catch (Exception e) {
             log.error("Error processing transaction {}: {}", event.getTransactionId(), e.getMessage(), e);
@@ -89,33 +136,187 @@ public class TransactionProcessor {
         }
     }
 
+    /**
+     * Run rules and ML scoring for a transaction and combine them into a decision.
+     */
+    private FraudResult decide(TransactionEvent event, int partition, long startTime) {
+        // Step 1: Start ML scoring so it runs alongside the rules
+        CompletableFuture<MLScoreResponse> pendingScore = pipelined
+                ? mlModelClient.getScoreAsync(event).toFuture()
+                : null;
+
+        // Step 2: Execute rule-based checks
+        FraudResult ruleResult = ruleChain.executeRules(event, featurePrefetcher.prefetch(event, partition));
+
+        // Step 3: Get ML model score
+        MLScoreResponse mlScore = pendingScore != null
+                ? pendingScore.join()
+                : mlModelClient.getScore(event);
+
+        // Step 4: Combine results
+        FraudResult finalResult = combineResults(event, ruleResult, mlScore, startTime);
+        velocityAggregator.record(event);
+        return finalResult;
+    }
+
+    private void logProcessed(TransactionEvent event, FraudResult result) {
+        log.info("Transaction {} processed: fraud={}, score={}, time={}ms",
+                event.getTransactionId(),
+                result.isFraud(),
+                result.getFraudScore(),
+                result.getProcessingTimeMs());
+    }
+
+    /**
+     * Process a micro-batch of transactions through the fraud detection pipeline.
+     *
+     * ML scores for the whole batch are requested up front and collected while
+     * the rules run. Per-user features for the whole batch are prefetched in
+     * one pass before the rules. All transactions and user profiles are then written in a
+     * single database transaction. A failure while deciding one event is
+     * recorded against that event and does not affect the rest of the batch.
+     * If the batch write fails, the events are written one by one so only the
+     * offending records are reported as failed. With write-behind enabled the
+     * writes are queued instead and {@link BatchProcessingResult#getPersisted()}
+     * completes once they are durable.
+     *
+     * @param events     The transaction events to process, in partition order
+     * @param partitions The partition each event was read from, indexed like the events
+     * @return Per-event results and failures, indexed like the input
+     */
+    public BatchProcessingResult processBatch(List<TransactionEvent> events, List<Integer> partitions) {
+        long startTime = System.currentTimeMillis();
+
+        log.info("Processing batch of {} transactions", events.size());
+
+        BatchProcessingResult batchResult = new BatchProcessingResult(events.size());
+
+        // Step 1: Request ML scores for the whole batch
+        CompletableFuture<List<MLScoreResponse>> mlScores = mlModelClient.getScoresAsync(events).toFuture();
+
+        // Step 2: Prefetch features and execute rule-based checks while the ML requests are in flight
+        List<FeatureSnapshot> features = featurePrefetcher.prefetch(events, partitions);
+        List<FraudResult> ruleResults = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                ruleResults.add(ruleChain.executeRules(events.get(i), features.get(i)));
+                velocityAggregator.record(events.get(i));
+            } catch (Exception e) {
+                ruleResults.add(null);
+                batchResult.recordFailure(i, e);
+            }
+        }
+
+        // Step 3: Combine results
+        List<MLScoreResponse> scores = mlScores.join();
+        List<Integer> decidedIndexes = new ArrayList<>(events.size());
+        List<TransactionEvent> decidedEvents = new ArrayList<>(events.size());
+        List<FraudResult> decidedResults = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            if (ruleResults.get(i) == null) {
+                continue;
+            }
+            try {
+                FraudResult finalResult = combineResults(events.get(i), ruleResults.get(i), scores.get(i), startTime);
+                batchResult.recordSuccess(i, finalResult);
+                decidedIndexes.add(i);
+                decidedEvents.add(events.get(i));
+                decidedResults.add(finalResult);
+            } catch (Exception e) {
+                batchResult.recordFailure(i, e);
+            }
+        }
+
+        // Step 4: Persist transactions and update user profiles
+        if (writeBehindQueue.isEnabled()) {
+            batchResult.setPersisted(queueWrites(events, partitions, decidedIndexes, batchResult));
+        } else {
+            try {
+                persistenceService.persistBatch(decidedEvents, decidedResults);
+            } catch (Exception e) {
+                log.warn("Batch write of {} transactions failed, writing them individually: {}",
+                        decidedEvents.size(), e.getMessage());
+                persistIndividually(events, decidedIndexes, batchResult);
+            }
+        }
+
+        // Step 5: Publish alerts for detected fraud
+        for (int index : decidedIndexes) {
+            FraudResult result = batchResult.getResult(index);
+            if (result != null && result.isFraud()) {
+                publishFraudAlert(events.get(index), result);
+            }
+        }
+
+        log.info("Batch of {} transactions processed: succeeded={}, failed={}, time={}ms",
+                events.size(),
+                batchResult.getSuccessCount(),
+                batchResult.getFailureCount(),
+                System.currentTimeMillis() - startTime);
+
+        return batchResult;
+    }
+
+    /**
+     * Hand decided events to the write-behind queue, recording write failures as they complete.
+     */
+    private CompletableFuture<Void> queueWrites(List<TransactionEvent> events, List<Integer> partitions,
+                                                List<Integer> indexes, BatchProcessingResult batchResult) {
+        List<CompletableFuture<Void>> writes = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            try {
+                writes.add(writeBehindQueue
+                        .submit(partitions.get(index), events.get(index), batchResult.getResult(index))
+                        .exceptionally(error -> {
+                            batchResult.recordFailure(index, error instanceof Exception e
+                                    ? e
+                                    : new IllegalStateException(error));
+                            return null;
+                        }));
+            } catch (Exception e) {
+                batchResult.recordFailure(index, e);
+            }
+        }
+        return CompletableFuture.allOf(writes.toArray(new CompletableFuture[0]));
+    }
+
+    private void persistIndividually(List<TransactionEvent> events, List<Integer> indexes,
+                                     BatchProcessingResult batchResult) {
+        for (int index : indexes) {
+            try {
+                persistenceService.persist(events.get(index), batchResult.getResult(index));
+            } catch (Exception e) {
+                batchResult.recordFailure(index, e);
+            }
+        }
+    }
+
     /**
      * Combine rule-based and ML results.
      */
     private FraudResult combineResults(TransactionEvent event, FraudResult ruleResult,
                                         MLScoreResponse mlScore, long startTime) {
         
-        BigDecimal ruleScore = ruleResult.getFraudScore();
-        BigDecimal mlProbability = mlScore.getFraudProbability() != null 
-                ? mlScore.getFraudProbability() : BigDecimal.ZERO;
+        int ruleScore = RiskScores.fromDecimal(ruleResult.getFraudScore());
+        int mlProbability = RiskScores.fromDecimal(mlScore.getFraudProbability());
 
-        // Weighted combination
-        BigDecimal combinedScore = ruleScore.multiply(RULES_WEIGHT)
-                .add(mlProbability.multiply(ML_WEIGHT));
+        // Weighted combination, exact in tenths of a basis point
+        int weightedScore = ruleScore * RULES_WEIGHT + mlProbability * ML_WEIGHT;
+        int combinedScore = (weightedScore + 5) / 10;
 
         // Determine if fraud (using 0.5 threshold)
-        boolean isFraud = combinedScore.compareTo(new BigDecimal("0.5")) >= 0 
+        boolean isFraud = weightedScore >= RiskScores.FRAUD_THRESHOLD * 10
                 || ruleResult.isFraud() 
                 || (mlScore.getIsFraud() != null && mlScore.getIsFraud());
 
         // Determine risk level
-        FraudResult.RiskLevel riskLevel = determineRiskLevel(combinedScore);
+        FraudResult.RiskLevel riskLevel = RiskScores.riskLevel(combinedScore);
 
         // Create ML prediction summary
         FraudResult.MLPrediction mlPrediction = FraudResult.MLPrediction.builder()
                 .modelName(mlScore.getModelName())
                 .modelVersion(mlScore.getModelVersion())
-                .probability(mlProbability)
+                .probability(RiskScores.toDecimal(mlProbability))
                 .prediction(mlScore.getPrediction())
                 .confidence(mlScore.getConfidence())
                 .build();
@@ -123,30 +324,17 @@ public class TransactionProcessor {
         return FraudResult.builder()
                 .transactionId(event.getTransactionId())
                 .isFraud(isFraud)
-                .fraudScore(combinedScore)
+                .fraudScore(RiskScores.toDecimal(combinedScore))
                 .riskLevel(riskLevel)
                 .triggeredRules(ruleResult.getTriggeredRules())
                 .ruleDetails(ruleResult.getRuleDetails())
                 .mlPrediction(mlPrediction)
-                .reason(buildReason(ruleResult, mlScore, isFraud))
                 .recommendedAction(determineAction(isFraud, riskLevel))
                 .processingTimeMs(System.currentTimeMillis() - startTime)
                 .analyzedAt(Instant.now())
                 .build();
     }
 
-    private FraudResult.RiskLevel determineRiskLevel(BigDecimal score) {
-        if (score.compareTo(new BigDecimal("0.8")) >= 0) {
-            return FraudResult.RiskLevel.CRITICAL;
-        } else if (score.compareTo(new BigDecimal("0.6")) >= 0) {
-            return FraudResult.RiskLevel.HIGH;
-        } else if (score.compareTo(new BigDecimal("0.3")) >= 0) {
-            return FraudResult.RiskLevel.MEDIUM;
-        } else {
-            return FraudResult.RiskLevel.LOW;
-        }
-    }
-
     private FraudResult.RecommendedAction determineAction(boolean isFraud, FraudResult.RiskLevel riskLevel) {
         if (isFraud) {
             return switch (riskLevel) {
@@ -160,78 +348,6 @@ public class TransactionProcessor {
                 : FraudResult.RecommendedAction.APPROVE;
     }
 
-    private String buildReason(FraudResult ruleResult, MLScoreResponse mlScore, boolean isFraud) {
-        StringBuilder reason = new StringBuilder();
-        
-        if (isFraud) {
-            reason.append("FRAUD DETECTED: ");
-        } else {
-            reason.append("Transaction analyzed: ");
-        }
-
-        if (!ruleResult.getTriggeredRules().isEmpty()) {
-            reason.append("Rules triggered: ").append(String.join(", ", ruleResult.getTriggeredRules())).append(". ");
-        }
-
-        if (mlScore.getFraudProbability() != null && mlScore.getFraudProbability().compareTo(new BigDecimal("0.3")) > 0) {
-            reason.append("ML model flagged with ").append(mlScore.getFraudProbability()).append(" probability.");
-        }
-
-        return reason.toString().trim();
-    }
-
-    /**
-     * Persist transaction to database.
-     */
-    private Transaction persistTransaction(TransactionEvent event, FraudResult result) {
-        Transaction transaction = Transaction.builder()
-                .transactionId(event.getTransactionId())
-                .amount(event.getAmount())
-                .currency(event.getCurrency())
-                .userId(event.getUserId())
-                .merchantId(event.getMerchantId())
-                .merchantName(event.getMerchantName())
-                .merchantCategory(event.getMerchantCategory())
-                .location(event.getLocation())
-                .ipAddress(event.getIpAddress())
-                .deviceId(event.getDeviceId())
-                .cardType(event.getCardType())
-                .cardLastFour(event.getCardLastFour())
-                .transactionType(event.getTransactionType())
-                .channel(event.getChannel())
-                .status(result.isFraud() ? "FLAGGED" : "APPROVED")
-                .isFraud(result.isFraud())
-                .fraudScore(result.getFraudScore())
-                .fraudReason(result.getReason())
-                .rulesTriggered(result.getTriggeredRules().toArray(new String[0]))
-                .processingTimeMs(result.getProcessingTimeMs().intValue())
-                .processedAt(Instant.now())
-                .build();
-
-        return transactionRepository.save(transaction);
-    }
-
-    /**
-     * Update user profile with latest transaction data.
-     */
-    private void updateUserProfile(TransactionEvent event) {
-        UserProfile profile = userProfileRepository.findByUserId(event.getUserId())
-                .orElseGet(() -> UserProfile.builder()
-                        .userId(event.getUserId())
-                        .transactionCount24h(0)
-                        .totalAmount24h(BigDecimal.ZERO)
-                        .riskScore(BigDecimal.ZERO)
-                        .build());
-
-        profile.setLastKnownIp(event.getIpAddress());
-        profile.setLastKnownLocation(event.getLocation());
-        profile.setLastTransactionAt(Instant.now());
-        profile.setTransactionCount24h(profile.getTransactionCount24h() + 1);
-        profile.setTotalAmount24h(profile.getTotalAmount24h().add(event.getAmount()));
-
-        userProfileRepository.save(profile);
-    }
-
     /**
      * Publish fraud alert to notification service.
      */
@@ -266,21 +382,10 @@ public class TransactionProcessor {
 
     private FraudAlert.AlertType determineAlertType(FraudResult result) {
         if (result.getMlPrediction() != null && 
-            result.getMlPrediction().getProbability().compareTo(new BigDecimal("0.5")) > 0) {
+            RiskScores.fromDecimal(result.getMlPrediction().getProbability()) > RiskScores.FRAUD_THRESHOLD) {
             return FraudAlert.AlertType.ML_DETECTION;
         }
-        if (!result.getTriggeredRules().isEmpty()) {
-            if (result.getTriggeredRules().contains("RULE_001")) {
-                return FraudAlert.AlertType.HIGH_AMOUNT;
-            }
-            if (result.getTriggeredRules().contains("RULE_003")) {
-                return FraudAlert.AlertType.VELOCITY_BREACH;
-            }
-            if (result.getTriggeredRules().contains("RULE_005")) {
-                return FraudAlert.AlertType.LOCATION_ANOMALY;
-            }
-        }
-        return FraudAlert.AlertType.RULE_BASED;
+        return ruleChain.alertType(result.getTriggeredRules());
     }
 
     private FraudAlert.Severity mapSeverity(FraudResult.RiskLevel riskLevel) {
@@ -0,0 +1,16 @@
+package com.fraud.engine.repository;
+
+import com.fraud.engine.entity.RuleConfig;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Rule Config Repository - Data access for rule definitions.
+ */
+@Repository
+public interface RuleConfigRepository extends JpaRepository<RuleConfig, Long> {
+
+    List<RuleConfig> findAllByOrderByPriorityAscRuleIdAsc();
+}
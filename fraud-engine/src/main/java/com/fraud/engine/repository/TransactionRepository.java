@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +40,20 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
             @Param("userId") String userId,
             @Param("since") Instant since);
 
+    /**
+     * Hourly activity buckets of several users that overlap the period since a
+     * point in time, including the bucket containing {@code since}.
+     */
+    @Query(value = "SELECT user_id AS userId, "
+            + "CAST(EXTRACT(EPOCH FROM bucket_start) AS bigint) AS bucketStartEpochSecond, "
+            + "CAST(transaction_count AS bigint) AS transactionCount, total_amount AS totalAmount "
+            + "FROM fraud.user_activity_buckets "
+            + "WHERE user_id IN (:userIds) AND bucket_start > CAST(:since AS timestamptz) - INTERVAL '1 hour'",
+            nativeQuery = true)
+    List<UserActivityBucket> findActivityBucketsByUsersSince(
+            @Param("userIds") Collection<String> userIds,
+            @Param("since") Instant since);
+
     @Query("SELECT t FROM Transaction t WHERE t.isFraud = true ORDER BY t.createdAt DESC")
     List<Transaction> findFraudulentTransactions();
 
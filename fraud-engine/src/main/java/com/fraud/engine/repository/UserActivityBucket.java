@@ -0,0 +1,18 @@
+package com.fraud.engine.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * User Activity Bucket - Transaction count and amount of a user in one hourly activity bucket.
+ */
+public interface UserActivityBucket {
+
+    String getUserId();
+
+    /** Start of the bucket's hour, in epoch seconds. */
+    Long getBucketStartEpochSecond();
+
+    Long getTransactionCount();
+
+    BigDecimal getTotalAmount();
+}
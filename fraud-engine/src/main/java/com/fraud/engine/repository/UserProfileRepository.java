@@ -4,6 +4,8 @@ import com.fraud.engine.entity.UserProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,5 +16,7 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
 
     Optional<UserProfile> findByUserId(String userId);
 
+    List<UserProfile> findByUserIdIn(Collection<String> userIds);
+
     boolean existsByUserId(String userId);
 }
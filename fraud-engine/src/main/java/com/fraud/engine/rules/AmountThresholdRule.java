@@ -1,25 +1,39 @@
 package com.fraud.engine.rules;
 
 import com.fraud.common.dto.FraudResult;
+import com.fraud.common.dto.ReasonCode;
 import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.feature.FeatureSnapshot;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 /**
  * Amount Threshold Rule - Flags transactions exceeding threshold amounts.
+ *
+ * The high and critical thresholds come from the threshold_value of
+ * RULE_001 and RULE_002 in rules_config, falling back to the configured
+ * defaults.
  */
 @Component
 @Slf4j
 public class AmountThresholdRule implements Rule {
 
+    private static final FraudResult.Reason NORMAL = FraudResult.Reason.of(ReasonCode.AMOUNT_NORMAL);
+    private static final FraudResult.Reason NOT_PROVIDED = FraudResult.Reason.of(ReasonCode.AMOUNT_NOT_PROVIDED);
+
+    private static final String CRITICAL_RULE_ID = "RULE_002";
+
     @Value("${fraud.rules.amount.high-threshold:10000}")
-    private BigDecimal highThreshold;
+    private BigDecimal defaultHighThreshold;
 
     @Value("${fraud.rules.amount.critical-threshold:50000}")
-    private BigDecimal criticalThreshold;
+    private BigDecimal defaultCriticalThreshold;
+
+    private volatile Thresholds thresholds;
 
     @Override
     public String getRuleId() {
@@ -42,40 +56,52 @@ public class AmountThresholdRule implements Rule {
     }
 
     @Override
-    public FraudResult.RuleEvaluation evaluate(TransactionEvent event, FraudResult.FraudResultBuilder resultBuilder) {
+    public void configure(RuleSet ruleSet) {
+        thresholds = new Thresholds(
+                ruleSet.threshold(getRuleId(), defaultHighThreshold),
+                ruleSet.threshold(CRITICAL_RULE_ID, defaultCriticalThreshold));
+    }
+
+    @Override
+    public FraudResult.RuleEvaluation evaluate(TransactionEvent event, FeatureSnapshot features,
+                                               FraudResult.FraudResultBuilder resultBuilder) {
         BigDecimal amount = event.getAmount();
+        BigDecimal highThreshold = thresholds.high();
+        BigDecimal criticalThreshold = thresholds.critical();
         boolean triggered = false;
-        BigDecimal score = BigDecimal.ZERO;
-        String message = "Transaction amount within normal range";
+        int score = RiskScores.ZERO;
+        FraudResult.Reason reason = NORMAL;
 
         if (amount == null) {
-            return buildEvaluation(false, BigDecimal.ZERO, "Amount not provided");
+            return buildEvaluation(false, RiskScores.ZERO, NOT_PROVIDED);
         }
 
         if (amount.compareTo(criticalThreshold) >= 0) {
             triggered = true;
-            score = new BigDecimal("0.8");
-            message = String.format("CRITICAL: Transaction amount $%s exceeds critical threshold of $%s",
-                    amount, criticalThreshold);
-            log.warn("Rule {} triggered: {}", getRuleId(), message);
+            score = 8_000;
+            reason = FraudResult.Reason.of(ReasonCode.AMOUNT_CRITICAL, amount, criticalThreshold);
+            log.warn("Rule {} triggered: amount {} exceeds critical threshold {}",
+                    getRuleId(), amount, criticalThreshold);
         } else if (amount.compareTo(highThreshold) >= 0) {
             triggered = true;
-            score = new BigDecimal("0.5");
-            message = String.format("HIGH: Transaction amount $%s exceeds threshold of $%s",
-                    amount, highThreshold);
-            log.info("Rule {} triggered: {}", getRuleId(), message);
+            score = 5_000;
+            reason = FraudResult.Reason.of(ReasonCode.AMOUNT_HIGH, amount, highThreshold);
+            log.info("Rule {} triggered: amount {} exceeds threshold {}", getRuleId(), amount, highThreshold);
         }
 
-        return buildEvaluation(triggered, score, message);
+        return buildEvaluation(triggered, score, reason);
     }
 
-    private FraudResult.RuleEvaluation buildEvaluation(boolean triggered, BigDecimal score, String message) {
+    private FraudResult.RuleEvaluation buildEvaluation(boolean triggered, int score, FraudResult.Reason reason) {
         return FraudResult.RuleEvaluation.builder()
                 .ruleId(getRuleId())
                 .ruleName(getRuleName())
                 .triggered(triggered)
-                .score(score)
-                .message(message)
+                .score(RiskScores.toDecimal(score))
+                .reasons(List.of(reason))
                 .build();
     }
+
+    private record Thresholds(BigDecimal high, BigDecimal critical) {
+    }
 }
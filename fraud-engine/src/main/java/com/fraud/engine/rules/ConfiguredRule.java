@@ -0,0 +1,94 @@
+package com.fraud.engine.rules;
+
+import com.fraud.common.dto.FraudResult;
+import com.fraud.common.dto.ReasonCode;
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.feature.FeatureSnapshot;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configured Rule - A rule defined by a rules_config row.
+ *
+ * The condition expression is compiled when the row is loaded, so
+ * evaluating the rule costs one call into the compiled condition. The
+ * score of a triggered rule follows the row's severity.
+ */
+final class ConfiguredRule implements Rule {
+
+    private static final List<FraudResult.Reason> NOT_MET =
+            List.of(FraudResult.Reason.of(ReasonCode.CONDITION_NOT_MET));
+
+    private final RuleDefinition definition;
+    private final RuleExpressionCompiler.Condition condition;
+    private final Map<RuleAttribute, String> preconditions;
+    private final int score;
+    private final List<FraudResult.Reason> triggeredReasons;
+
+    /**
+     * Compile a rule definition.
+     *
+     * @throws IllegalArgumentException if the condition expression is invalid
+     */
+    ConfiguredRule(RuleDefinition definition) {
+        this.definition = definition;
+        RuleExpressionCompiler.CompiledCondition compiled =
+                RuleExpressionCompiler.compile(definition.conditionExpression(), definition.thresholdValue());
+        this.condition = compiled.condition();
+        this.preconditions = compiled.preconditions();
+        this.score = scoreFor(definition.severity());
+        this.triggeredReasons = List.of(FraudResult.Reason.of(ReasonCode.CONDITION_MET,
+                definition.description() != null ? definition.description() : definition.ruleName()));
+    }
+
+    @Override
+    public String getRuleId() {
+        return definition.ruleId();
+    }
+
+    @Override
+    public String getRuleName() {
+        return definition.ruleName();
+    }
+
+    @Override
+    public int getPriority() {
+        return definition.priority();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return definition.active();
+    }
+
+    @Override
+    public Map<RuleAttribute, String> getPreconditions() {
+        return preconditions;
+    }
+
+    @Override
+    public FraudResult.RuleEvaluation evaluate(TransactionEvent event, FeatureSnapshot features,
+                                               FraudResult.FraudResultBuilder resultBuilder) {
+        boolean triggered = condition.test(event, features);
+        return FraudResult.RuleEvaluation.builder()
+                .ruleId(getRuleId())
+                .ruleName(getRuleName())
+                .triggered(triggered)
+                .score(RiskScores.toDecimal(triggered ? score : RiskScores.ZERO))
+                .reasons(triggered ? triggeredReasons : NOT_MET)
+                .build();
+    }
+
+    private static int scoreFor(String severity) {
+        if (severity == null) {
+            return RiskScores.MEDIUM_THRESHOLD;
+        }
+        return switch (severity.toUpperCase()) {
+            case "CRITICAL" -> RiskScores.CRITICAL_THRESHOLD;
+            case "HIGH" -> RiskScores.HIGH_THRESHOLD;
+            case "LOW" -> 1_000;
+            default -> RiskScores.MEDIUM_THRESHOLD;
+        };
+    }
+}
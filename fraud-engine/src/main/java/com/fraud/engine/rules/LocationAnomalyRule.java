@@ -1,25 +1,30 @@
 package com.fraud.engine.rules;
 
 import com.fraud.common.dto.FraudResult;
+import com.fraud.common.dto.ReasonCode;
 import com.fraud.common.dto.TransactionEvent;
-import com.fraud.engine.entity.UserProfile;
-import com.fraud.engine.repository.UserProfileRepository;
-import lombok.RequiredArgsConstructor;
+import com.fraud.engine.feature.FeatureSnapshot;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Location Anomaly Rule - Flags transactions from unusual locations.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class LocationAnomalyRule implements Rule {
 
-    private final UserProfileRepository userProfileRepository;
+    private static final List<FraudResult.Reason> NEW_USER =
+            List.of(FraudResult.Reason.of(ReasonCode.LOCATION_NEW_USER));
+    private static final List<FraudResult.Reason> CONSISTENT =
+            List.of(FraudResult.Reason.of(ReasonCode.LOCATION_CONSISTENT));
+    private static final List<FraudResult.Reason> UNAVAILABLE =
+            List.of(FraudResult.Reason.of(ReasonCode.LOCATION_UNAVAILABLE));
+    private static final List<FraudResult.Reason> USER_NOT_PROVIDED =
+            List.of(FraudResult.Reason.of(ReasonCode.USER_NOT_PROVIDED));
 
     @Override
     public String getRuleId() {
@@ -42,61 +47,59 @@ public class LocationAnomalyRule implements Rule {
     }
 
     @Override
-    public FraudResult.RuleEvaluation evaluate(TransactionEvent event, FraudResult.FraudResultBuilder resultBuilder) {
+    public FraudResult.RuleEvaluation evaluate(TransactionEvent event, FeatureSnapshot features,
+                                               FraudResult.FraudResultBuilder resultBuilder) {
         String userId = event.getUserId();
         String currentLocation = event.getLocation();
         String currentIp = event.getIpAddress();
         boolean triggered = false;
-        BigDecimal score = BigDecimal.ZERO;
-        StringBuilder messageBuilder = new StringBuilder();
+        int score = RiskScores.ZERO;
+        List<FraudResult.Reason> reasons = new ArrayList<>(2);
 
         if (userId == null || userId.isBlank()) {
-            return buildEvaluation(false, BigDecimal.ZERO, "User ID not provided");
+            return buildEvaluation(false, RiskScores.ZERO, USER_NOT_PROVIDED);
         }
 
         try {
-            Optional<UserProfile> profileOpt = userProfileRepository.findByUserId(userId);
-
-            if (profileOpt.isEmpty()) {
+            if (!features.isKnownUser()) {
                 // New user - no baseline to compare
-                messageBuilder.append("New user - establishing baseline location");
+                reasons = NEW_USER;
                 log.debug("Rule {}: New user {}, no baseline for location comparison", getRuleId(), userId);
             } else {
-                UserProfile profile = profileOpt.get();
 
                 // Check IP address change
-                if (currentIp != null && profile.getLastKnownIp() != null) {
-                    if (!currentIp.equals(profile.getLastKnownIp())) {
+                if (currentIp != null && features.getLastKnownIp() != null) {
+                    if (!currentIp.equals(features.getLastKnownIp())) {
                         triggered = true;
-                        score = new BigDecimal("0.3");
-                        messageBuilder.append(String.format("IP address changed: %s -> %s. ",
-                                profile.getLastKnownIp(), currentIp));
+                        score = 3_000;
+                        reasons.add(FraudResult.Reason.of(ReasonCode.IP_CHANGED,
+                                features.getLastKnownIp(), currentIp));
                         log.info("Rule {} triggered: IP change for user {}", getRuleId(), userId);
                     }
                 }
 
                 // Check location change
-                if (currentLocation != null && profile.getLastKnownLocation() != null) {
-                    if (!locationMatch(currentLocation, profile.getLastKnownLocation())) {
+                if (currentLocation != null && features.getLastKnownLocation() != null) {
+                    if (!locationMatch(currentLocation, features.getLastKnownLocation())) {
                         triggered = true;
-                        score = score.max(new BigDecimal("0.4"));
-                        messageBuilder.append(String.format("Location changed: %s -> %s. ",
-                                profile.getLastKnownLocation(), currentLocation));
+                        score = Math.max(score, 4_000);
+                        reasons.add(FraudResult.Reason.of(ReasonCode.LOCATION_CHANGED,
+                                features.getLastKnownLocation(), currentLocation));
                         log.info("Rule {} triggered: Location change for user {}", getRuleId(), userId);
                     }
                 }
 
                 if (!triggered) {
-                    messageBuilder.append("Location consistent with user profile");
+                    reasons = CONSISTENT;
                 }
             }
 
         } catch (Exception e) {
             log.error("Error evaluating location rule for user {}: {}", userId, e.getMessage());
-            messageBuilder.append("Unable to evaluate location - proceeding with caution");
+            reasons = UNAVAILABLE;
         }
 
-        return buildEvaluation(triggered, score, messageBuilder.toString().trim());
+        return buildEvaluation(triggered, score, reasons);
     }
 
     private boolean locationMatch(String location1, String location2) {
@@ -108,13 +111,13 @@ public class LocationAnomalyRule implements Rule {
         return location1.equalsIgnoreCase(location2);
     }
 
-    private FraudResult.RuleEvaluation buildEvaluation(boolean triggered, BigDecimal score, String message) {
+    private FraudResult.RuleEvaluation buildEvaluation(boolean triggered, int score, List<FraudResult.Reason> reasons) {
         return FraudResult.RuleEvaluation.builder()
                 .ruleId(getRuleId())
                 .ruleName(getRuleName())
                 .triggered(triggered)
-                .score(score)
-                .message(message)
+                .score(RiskScores.toDecimal(score))
+                .reasons(reasons)
                 .build();
     }
 }
@@ -0,0 +1,86 @@
+package com.fraud.engine.rules;
+
+import com.fraud.common.dto.FraudResult;
+
+import java.math.BigDecimal;
+
+/**
+ * Risk Scores - Fixed-point arithmetic for fraud scores.
+ *
+ * Scores are handled as int basis points (1.0 = 10000) on the scoring path
+ * and only converted to BigDecimal for FraudResult and persistence. The
+ * BigDecimal form of every score in [0, 1] is precomputed at scale 4, so
+ * converting in either direction does not allocate.
+ */
+public final class RiskScores {
+
+    /** Basis points per 1.0. */
+    public static final int SCALE = 10_000;
+
+    public static final int ZERO = 0;
+    public static final int MAX = SCALE;
+
+    /** Scores at or above this are fraud. */
+    public static final int FRAUD_THRESHOLD = 5_000;
+
+    public static final int CRITICAL_THRESHOLD = 8_000;
+    public static final int HIGH_THRESHOLD = 6_000;
+    public static final int MEDIUM_THRESHOLD = 3_000;
+
+    private static final BigDecimal[] DECIMALS = new BigDecimal[SCALE + 1];
+
+    static {
+        for (int i = 0; i <= SCALE; i++) {
+            DECIMALS[i] = BigDecimal.valueOf(i, 4);
+        }
+    }
+
+    private RiskScores() {
+    }
+
+    /**
+     * Convert a score to basis points, rounding half up and clamping to [0, 1].
+     *
+     * @param score The score, or null for zero
+     * @return The score in basis points
+     */
+    public static int fromDecimal(BigDecimal score) {
+        if (score == null) {
+            return ZERO;
+        }
+        // doubleValue() has an allocation-free fast path for small-scale decimals
+        return clamp((int) Math.round(score.doubleValue() * SCALE));
+    }
+
+    /**
+     * Convert basis points to a shared scale-4 BigDecimal, clamping to [0, 1].
+     *
+     * @param basisPoints The score in basis points
+     * @return The score as a decimal
+     */
+    public static BigDecimal toDecimal(int basisPoints) {
+        return DECIMALS[clamp(basisPoints)];
+    }
+
+    public static int clamp(int basisPoints) {
+        return Math.max(ZERO, Math.min(MAX, basisPoints));
+    }
+
+    /**
+     * Map a score to its risk level.
+     *
+     * @param basisPoints The score in basis points
+     * @return The risk level
+     */
+    public static FraudResult.RiskLevel riskLevel(int basisPoints) {
+        if (basisPoints >= CRITICAL_THRESHOLD) {
+            return FraudResult.RiskLevel.CRITICAL;
+        } else if (basisPoints >= HIGH_THRESHOLD) {
+            return FraudResult.RiskLevel.HIGH;
+        } else if (basisPoints >= MEDIUM_THRESHOLD) {
+            return FraudResult.RiskLevel.MEDIUM;
+        } else {
+            return FraudResult.RiskLevel.LOW;
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.fraud.engine.rules;
 
 import com.fraud.common.dto.FraudResult;
 import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.feature.FeatureSnapshot;
+
+import java.util.Map;
 
 /**
  * Rule Interface - Contract for fraud detection rules.
@@ -39,12 +42,48 @@ public interface Rule {
      */
     boolean isEnabled();
 
+    /**
+     * Get the bulkhead this rule runs in when rules are evaluated in parallel.
+     * Rules that may block should name their own bulkhead so they cannot
+     * starve the others.
+     *
+     * @return Bulkhead name, or null for the shared default bulkhead
+     */
+    default String getBulkhead() {
+        return null;
+    }
+
+    /**
+     * Get the attribute values a transaction must have for this rule to
+     * trigger. Rules are indexed by them, so a rule is only evaluated for
+     * transactions that can match.
+     *
+     * @return Required attribute values, empty if the rule applies to every transaction
+     */
+    default Map<RuleAttribute, String> getPreconditions() {
+        return Map.of();
+    }
+
+    /**
+     * Apply a newly loaded rules_config before it takes effect.
+     * Rules with tunable thresholds read them from the rule set here.
+     *
+     * @param ruleSet The rule set about to become active
+     */
+    default void configure(RuleSet ruleSet) {
+    }
+
     /**
      * Evaluate the transaction against this rule.
      *
+     * Rules must not perform I/O; any per-user state they need is
+     * prefetched into the feature snapshot.
+     *
      * @param event         The transaction to evaluate
+     * @param features      The prefetched features of the transaction
      * @param resultBuilder The result builder to accumulate findings
      * @return RuleEvaluation with the result of this rule check
      */
-    FraudResult.RuleEvaluation evaluate(TransactionEvent event, FraudResult.FraudResultBuilder resultBuilder);
+    FraudResult.RuleEvaluation evaluate(TransactionEvent event, FeatureSnapshot features,
+                                        FraudResult.FraudResultBuilder resultBuilder);
 }
@@ -0,0 +1,53 @@
+package com.fraud.engine.rules;
+
+import com.fraud.common.dto.TransactionEvent;
+
+import java.util.function.Function;
+
+/**
+ * Rule Attribute - Transaction attributes rules can be indexed by.
+ *
+ * Declared from most to least selective; a rule with preconditions on
+ * several attributes is indexed under the first of them.
+ */
+public enum RuleAttribute {
+
+    MERCHANT_ID("merchantId", TransactionEvent::getMerchantId),
+    MERCHANT_CATEGORY("merchantCategory", TransactionEvent::getMerchantCategory),
+    TRANSACTION_TYPE("transactionType", TransactionEvent::getTransactionType),
+    CHANNEL("channel", TransactionEvent::getChannel),
+    CURRENCY("currency", TransactionEvent::getCurrency);
+
+    private final String field;
+    private final Function<TransactionEvent, String> extractor;
+
+    RuleAttribute(String field, Function<TransactionEvent, String> extractor) {
+        this.field = field;
+        this.extractor = extractor;
+    }
+
+    /**
+     * Name of the attribute in condition expressions.
+     */
+    public String getField() {
+        return field;
+    }
+
+    public String valueOf(TransactionEvent event) {
+        return extractor.apply(event);
+    }
+
+    /**
+     * Find the attribute of an expression field.
+     *
+     * @return The attribute, or null if the field is not indexable
+     */
+    static RuleAttribute forField(String field) {
+        for (RuleAttribute attribute : values()) {
+            if (attribute.field.equals(field)) {
+                return attribute;
+            }
+        }
+        return null;
+    }
+}
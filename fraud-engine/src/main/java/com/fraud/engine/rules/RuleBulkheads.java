@@ -0,0 +1,122 @@
+package com.fraud.engine.rules;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rule Bulkheads - Bounded thread pools for concurrent rule evaluation.
+ *
+ * Each bulkhead named by {@link Rule#getBulkhead()} gets its own fixed-size
+ * pool with a bounded queue, so a rule that blocks can exhaust only its own
+ * bulkhead. Rules without a bulkhead share the default one. A full
+ * bulkhead rejects new work instead of queueing it behind a stalled rule.
+ */
+@Component
+@Slf4j
+public class RuleBulkheads {
+
+    public static final String DEFAULT_BULKHEAD = "default";
+
+    private final boolean enabled;
+    private final long timeBudgetNanos;
+    private final int threads;
+    private final int queueCapacity;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ThreadPoolExecutor> pools = new ConcurrentHashMap<>();
+
+    public RuleBulkheads(
+            @Value("${fraud.rules.parallel.enabled:false}") boolean enabled,
+            @Value("${fraud.rules.parallel.time-budget-ms:50}") long timeBudgetMs,
+            @Value("${fraud.rules.parallel.bulkhead-threads:8}") int threads,
+            @Value("${fraud.rules.parallel.bulkhead-queue-capacity:256}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.meterRegistry = meterRegistry;
+
+        if (enabled) {
+            log.info("Parallel rule evaluation enabled: {} ms budget, {} threads per bulkhead",
+                    timeBudgetMs, threads);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Time each rule may take before it counts as not evaluated.
+     */
+    public long getTimeBudgetNanos() {
+        return timeBudgetNanos;
+    }
+
+    /**
+     * Run a rule evaluation in the rule's bulkhead.
+     *
+     * @param rule The rule to run
+     * @param task The evaluation
+     * @return Future of the evaluation
+     * @throws RejectedExecutionException if the bulkhead is full
+     */
+    public <T> Future<T> submit(Rule rule, Callable<T> task) {
+        String bulkhead = rule.getBulkhead() != null ? rule.getBulkhead() : DEFAULT_BULKHEAD;
+        return pools.computeIfAbsent(bulkhead, this::createPool).submit(task);
+    }
+
+    /**
+     * Count a rule that produced no evaluation in time.
+     *
+     * @param rule  The rule
+     * @param cause "timeout" or "rejected"
+     */
+    public void recordNotEvaluated(Rule rule, String cause) {
+        Counter.builder("fraud.rules.not-evaluated")
+                .description("Rule evaluations abandoned by parallel rule execution")
+                .tag("rule", rule.getRuleId())
+                .tag("cause", cause)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    private ThreadPoolExecutor createPool(String bulkhead) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "rule-" + bulkhead + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("fraud.rules.bulkhead.queued", pool, p -> p.getQueue().size())
+                .description("Rule evaluations waiting for a bulkhead thread")
+                .tag("bulkhead", bulkhead)
+                .register(meterRegistry);
+        log.info("Created rule bulkhead {} with {} threads", bulkhead, threads);
+        return pool;
+    }
+}
@@ -1,40 +1,134 @@
 package com.fraud.engine.rules;
 
+import com.fraud.common.dto.FraudAlert;
 import com.fraud.common.dto.FraudResult;
+import com.fraud.common.dto.ReasonCode;
 import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.feature.FeatureSnapshot;
 import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 /**
  * Rule Chain - Orchestrates the execution of all fraud detection rules.
  * 
  * Implements the Chain of Responsibility pattern by executing rules
- * in priority order and aggregating their results.
+ * and aggregating their results. The enabled rules are compiled once into
+ * a RulePlan, initially in priority order; the plan is periodically
+ * reordered by observed score per unit of cost. Once the summed score
+ * reaches the 1.0 cap no later rule can change the score or decision, so
+ * the remaining rules are skipped and recorded as not evaluated, except
+ * the alert-type rules that take precedence over every alert-type rule
+ * triggered so far: those are still evaluated, so the alert type does not
+ * depend on the learned order.
+ *
+ * The plan combines the built-in rules with the rules compiled from
+ * rules_config, and is recompiled whenever a new rule set is loaded. A
+ * configured rule replaces a built-in rule with the same ID, and a
+ * built-in rule whose row is inactive is left out. Only the rules whose
+ * preconditions the transaction meets are evaluated.
+ *
+ * When parallel evaluation is enabled, every rule of the plan is submitted
+ * to its bulkhead at once and the results are collected in plan order.
+ * A rule that misses its time budget, or whose bulkhead is full, is
+ * recorded as not evaluated and contributes no score.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class RuleChain {
 
+    /** Rules that determine the alert type of a flagged transaction, in precedence order. */
+    private static final Map<String, FraudAlert.AlertType> ALERT_TYPE_RULES = alertTypeRules();
+
     private final List<Rule> rules;
+    private final RuleBulkheads ruleBulkheads;
+    private final RuleConfigLoader ruleConfigLoader;
+
+    @Value("${fraud.rules.plan.min-samples:1000}")
+    private long minSamples;
+
+    private volatile RulePlan plan;
+
+    @PostConstruct
+    public synchronized void compile() {
+        RuleSet ruleSet = ruleConfigLoader.current();
+        Set<String> configuredIds = ruleSet.rules().stream().map(Rule::getRuleId).collect(Collectors.toSet());
+
+        List<Rule> active = new ArrayList<>(ruleSet.rules());
+        for (Rule rule : rules) {
+            rule.configure(ruleSet);
+            if (ruleSet.isActive(rule.getRuleId()) && !configuredIds.contains(rule.getRuleId())) {
+                active.add(rule);
+            }
+        }
+
+        plan = RulePlan.byPriority(active);
+        log.info("Rule plan compiled: {}", plan.ruleIds());
+    }
 
-    private static final BigDecimal FRAUD_THRESHOLD = new BigDecimal("0.5");
+    @EventListener
+    public void onRuleSetChanged(RuleConfigLoader.RuleSetChanged event) {
+        compile();
+    }
+
+    /**
+     * Reorder the plan by the statistics gathered since the last reorder.
+     */
+    @Scheduled(fixedDelayString = "${fraud.rules.plan.reorder-interval-ms:60000}")
+    public synchronized void reorder() {
+        RulePlan current = plan;
+        RulePlan next = current.reordered(minSamples);
+        if (next != current) {
+            log.debug("Rule statistics: {}", current.describeStats());
+            if (!next.ruleIds().equals(current.ruleIds())) {
+                log.info("Rule plan reordered: {}", next.ruleIds());
+            }
+            plan = next;
+        }
+    }
+
+    /**
+     * Determine the alert type from the triggered rules of a result.
+     *
+     * @param triggeredRules The triggered rule IDs
+     * @return The alert type of the highest-precedence triggered rule, or RULE_BASED
+     */
+    public FraudAlert.AlertType alertType(List<String> triggeredRules) {
+        for (Map.Entry<String, FraudAlert.AlertType> entry : ALERT_TYPE_RULES.entrySet()) {
+            if (triggeredRules.contains(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return FraudAlert.AlertType.RULE_BASED;
+    }
 
     /**
      * Execute all rules against a transaction.
      *
-     * @param event The transaction to evaluate
+     * @param event    The transaction to evaluate
+     * @param features The prefetched features of the transaction
      * @return FraudResult with aggregated findings
      */
-    public FraudResult executeRules(TransactionEvent event) {
+    public FraudResult executeRules(TransactionEvent event, FeatureSnapshot features) {
         long startTime = System.currentTimeMillis();
 
         log.info("Starting rule evaluation for transaction {}", event.getTransactionId());
@@ -44,89 +138,207 @@ public class RuleChain {
 
         List<FraudResult.RuleEvaluation> evaluations = new ArrayList<>();
         List<String> triggeredRules = new ArrayList<>();
-        BigDecimal totalScore = BigDecimal.ZERO;
 
-        // Sort rules by priority and execute
-        List<Rule> sortedRules = rules.stream()
-                .filter(Rule::isEnabled)
-                .sorted(Comparator.comparingInt(Rule::getPriority))
-                .toList();
-
-        for (Rule rule : sortedRules) {
-            try {
-                log.debug("Executing rule {} ({}) for transaction {}",
-                        rule.getRuleId(), rule.getRuleName(), event.getTransactionId());
-
-                FraudResult.RuleEvaluation evaluation = rule.evaluate(event, resultBuilder);
-                evaluations.add(evaluation);
-
-                if (evaluation.isTriggered()) {
-                    triggeredRules.add(rule.getRuleId());
-                    totalScore = totalScore.add(evaluation.getScore());
-                    log.debug("Rule {} triggered with score {}", rule.getRuleId(), evaluation.getScore());
-                }
-
-            } catch (Exception e) {
-                log.error("Error executing rule {}: {}", rule.getRuleId(), e.getMessage(), e);
-                // Continue with other rules
-            }
-        }
+        RulePlan current = plan;
+        int totalScore = ruleBulkheads.isEnabled()
+                ? evaluateInParallel(current, event, features, resultBuilder, evaluations, triggeredRules)
+                : evaluateSequentially(current, event, features, resultBuilder, evaluations, triggeredRules);
 
         // Normalize score to 0-1 range
-        BigDecimal normalizedScore = normalizeScore(totalScore, sortedRules.size());
+        int normalizedScore = normalizeScore(totalScore, current.size());
 
         // Determine if fraud based on threshold
-        boolean isFraud = normalizedScore.compareTo(FRAUD_THRESHOLD) >= 0;
+        boolean isFraud = normalizedScore >= RiskScores.FRAUD_THRESHOLD;
 
         // Determine risk level
-        FraudResult.RiskLevel riskLevel = determineRiskLevel(normalizedScore);
+        FraudResult.RiskLevel riskLevel = RiskScores.riskLevel(normalizedScore);
 
         // Determine recommended action
         FraudResult.RecommendedAction action = determineAction(isFraud, riskLevel);
 
-        // Build reason string
-        String reason = buildReason(triggeredRules, isFraud);
-
         long processingTime = System.currentTimeMillis() - startTime;
 
         FraudResult result = resultBuilder
                 .isFraud(isFraud)
-                .fraudScore(normalizedScore)
+                .fraudScore(RiskScores.toDecimal(normalizedScore))
                 .riskLevel(riskLevel)
                 .triggeredRules(triggeredRules)
                 .ruleDetails(evaluations)
-                .reason(reason)
                 .recommendedAction(action)
                 .processingTimeMs(processingTime)
                 .analyzedAt(Instant.now())
                 .build();
 
         log.info("Rule evaluation complete for transaction {}: fraud={}, score={}, rules={}, time={}ms",
-                event.getTransactionId(), isFraud, normalizedScore, triggeredRules.size(), processingTime);
+                event.getTransactionId(), isFraud, RiskScores.toDecimal(normalizedScore), triggeredRules.size(),
+                processingTime);
 
         return result;
     }
 
-    private BigDecimal normalizeScore(BigDecimal totalScore, int ruleCount) {
-        if (ruleCount == 0 || totalScore.compareTo(BigDecimal.ZERO) <= 0) {
-            return BigDecimal.ZERO;
+    private int evaluateSequentially(RulePlan current, TransactionEvent event, FeatureSnapshot features,
+                                     FraudResult.FraudResultBuilder resultBuilder,
+                                     List<FraudResult.RuleEvaluation> evaluations, List<String> triggeredRules) {
+        int[] candidates = current.candidates(event);
+        int totalScore = RiskScores.ZERO;
+        for (int c = 0; c < candidates.length; c++) {
+            int i = candidates[c];
+            Rule rule = current.rule(i);
+            if (skippable(totalScore, rule, triggeredRules)) {
+                log.debug("Score capped for transaction {}, skipping rule {}",
+                        event.getTransactionId(), rule.getRuleId());
+                evaluations.add(notEvaluated(rule, FraudResult.Reason.of(ReasonCode.RULE_SKIPPED)));
+                continue;
+            }
+            try {
+                log.debug("Executing rule {} ({}) for transaction {}",
+                        rule.getRuleId(), rule.getRuleName(), event.getTransactionId());
+
+                long ruleStart = System.nanoTime();
+                FraudResult.RuleEvaluation evaluation = rule.evaluate(event, features, resultBuilder);
+                totalScore += accept(current, i, evaluation, System.nanoTime() - ruleStart,
+                        evaluations, triggeredRules);
+
+            } catch (Exception e) {
+                log.error("Error executing rule {}: {}", rule.getRuleId(), e.getMessage(), e);
+                // Continue with other rules
+            }
         }
+        return totalScore;
+    }
 
-        // Cap at 1.0
-        BigDecimal normalized = totalScore.min(BigDecimal.ONE);
-        return normalized.setScale(4, RoundingMode.HALF_UP);
+    private int evaluateInParallel(RulePlan current, TransactionEvent event, FeatureSnapshot features,
+                                   FraudResult.FraudResultBuilder resultBuilder,
+                                   List<FraudResult.RuleEvaluation> evaluations, List<String> triggeredRules) {
+        int[] candidates = current.candidates(event);
+        List<Future<TimedEvaluation>> futures = new ArrayList<>(candidates.length);
+        for (int i : candidates) {
+            Rule rule = current.rule(i);
+            try {
+                futures.add(ruleBulkheads.submit(rule, () -> {
+                    long ruleStart = System.nanoTime();
+                    FraudResult.RuleEvaluation evaluation = rule.evaluate(event, features, resultBuilder);
+                    return new TimedEvaluation(evaluation, System.nanoTime() - ruleStart);
+                }));
+            } catch (RejectedExecutionException e) {
+                futures.add(null);
+            }
+        }
+
+        long deadline = System.nanoTime() + ruleBulkheads.getTimeBudgetNanos();
+        int totalScore = RiskScores.ZERO;
+        for (int c = 0; c < candidates.length; c++) {
+            int i = candidates[c];
+            Rule rule = current.rule(i);
+            Future<TimedEvaluation> future = futures.get(c);
+            if (future == null) {
+                log.warn("Bulkhead full, rule {} not evaluated for transaction {}",
+                        rule.getRuleId(), event.getTransactionId());
+                ruleBulkheads.recordNotEvaluated(rule, "rejected");
+                evaluations.add(notEvaluated(rule, FraudResult.Reason.of(ReasonCode.RULE_REJECTED,
+                        rule.getBulkhead() != null ? rule.getBulkhead() : RuleBulkheads.DEFAULT_BULKHEAD)));
+                continue;
+            }
+            if (skippable(totalScore, rule, triggeredRules)) {
+                future.cancel(true);
+                evaluations.add(notEvaluated(rule, FraudResult.Reason.of(ReasonCode.RULE_SKIPPED)));
+                continue;
+            }
+
+            try {
+                TimedEvaluation timed = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                totalScore += accept(current, i, timed.evaluation(), timed.nanos(), evaluations, triggeredRules);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                long budgetMs = TimeUnit.NANOSECONDS.toMillis(ruleBulkheads.getTimeBudgetNanos());
+                log.warn("Rule {} exceeded its {} ms budget for transaction {}",
+                        rule.getRuleId(), budgetMs, event.getTransactionId());
+                current.stats(i).record(ruleBulkheads.getTimeBudgetNanos(), false, RiskScores.ZERO);
+                ruleBulkheads.recordNotEvaluated(rule, "timeout");
+                evaluations.add(notEvaluated(rule, FraudResult.Reason.of(ReasonCode.RULE_TIMED_OUT, budgetMs)));
+            } catch (ExecutionException e) {
+                log.error("Error executing rule {}: {}", rule.getRuleId(), e.getCause().getMessage(), e.getCause());
+                // Continue with other rules
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.subList(c, futures.size()).forEach(f -> {
+                    if (f != null) {
+                        f.cancel(true);
+                    }
+                });
+                break;
+            }
+        }
+        return totalScore;
     }
 
-    private FraudResult.RiskLevel determineRiskLevel(BigDecimal score) {
-        if (score.compareTo(new BigDecimal("0.8")) >= 0) {
-            return FraudResult.RiskLevel.CRITICAL;
-        } else if (score.compareTo(new BigDecimal("0.6")) >= 0) {
-            return FraudResult.RiskLevel.HIGH;
-        } else if (score.compareTo(new BigDecimal("0.3")) >= 0) {
-            return FraudResult.RiskLevel.MEDIUM;
-        } else {
-            return FraudResult.RiskLevel.LOW;
+    /**
+     * Whether a rule can be skipped: the score is capped and the rule cannot change the alert type,
+     * because it is no alert-type rule or a triggered alert-type rule takes precedence over it.
+     */
+    private boolean skippable(int totalScore, Rule rule, List<String> triggeredRules) {
+        if (totalScore < RiskScores.MAX) {
+            return false;
+        }
+        int precedence = alertPrecedence(rule.getRuleId());
+        for (String triggered : triggeredRules) {
+            if (alertPrecedence(triggered) <= precedence) {
+                return true;
+            }
+        }
+        return precedence == Integer.MAX_VALUE;
+    }
+
+    /**
+     * Position of a rule in the alert-type precedence order, or Integer.MAX_VALUE for other rules.
+     */
+    private static int alertPrecedence(String ruleId) {
+        int precedence = 0;
+        for (String alertRule : ALERT_TYPE_RULES.keySet()) {
+            if (alertRule.equals(ruleId)) {
+                return precedence;
+            }
+            precedence++;
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Record a rule's evaluation and return the score it adds to the total.
+     */
+    private int accept(RulePlan current, int index, FraudResult.RuleEvaluation evaluation, long nanos,
+                       List<FraudResult.RuleEvaluation> evaluations, List<String> triggeredRules) {
+        int score = RiskScores.fromDecimal(evaluation.getScore());
+        current.stats(index).record(nanos, evaluation.isTriggered(), score);
+        evaluations.add(evaluation);
+
+        if (!evaluation.isTriggered()) {
+            return RiskScores.ZERO;
+        }
+        String ruleId = current.rule(index).getRuleId();
+        triggeredRules.add(ruleId);
+        log.debug("Rule {} triggered with score {}", ruleId, evaluation.getScore());
+        return score;
+    }
+
+    private FraudResult.RuleEvaluation notEvaluated(Rule rule, FraudResult.Reason reason) {
+        return FraudResult.RuleEvaluation.builder()
+                .ruleId(rule.getRuleId())
+                .ruleName(rule.getRuleName())
+                .triggered(false)
+                .evaluated(false)
+                .score(RiskScores.toDecimal(RiskScores.ZERO))
+                .reasons(List.of(reason))
+                .build();
+    }
+
+    private int normalizeScore(int totalScore, int ruleCount) {
+        if (ruleCount == 0 || totalScore <= 0) {
+            return RiskScores.ZERO;
         }
+
+        // Cap at 1.0
+        return Math.min(totalScore, RiskScores.MAX);
     }
 
     private FraudResult.RecommendedAction determineAction(boolean isFraud, FraudResult.RiskLevel riskLevel) {
@@ -144,18 +356,14 @@ public class RuleChain {
         }
     }
 
-    private String buildReason(List<String> triggeredRules, boolean isFraud) {
-        if (triggeredRules.isEmpty()) {
-            return "No fraud indicators detected";
-        }
+    private static Map<String, FraudAlert.AlertType> alertTypeRules() {
+        Map<String, FraudAlert.AlertType> rules = new LinkedHashMap<>();
+        rules.put("RULE_001", FraudAlert.AlertType.HIGH_AMOUNT);
+        rules.put("RULE_003", FraudAlert.AlertType.VELOCITY_BREACH);
+        rules.put("RULE_005", FraudAlert.AlertType.LOCATION_ANOMALY);
+        return Collections.unmodifiableMap(rules);
+    }
 
-        StringBuilder reason = new StringBuilder();
-        if (isFraud) {
-            reason.append("FRAUD DETECTED: ");
-        } else {
-            reason.append("SUSPICIOUS ACTIVITY: ");
-        }
-        reason.append("Triggered rules: ").append(String.join(", ", triggeredRules));
-        return reason.toString();
+    private record TimedEvaluation(FraudResult.RuleEvaluation evaluation, long nanos) {
     }
 }
@@ -0,0 +1,125 @@
+package com.fraud.engine.rules;
+
+import com.fraud.engine.repository.RuleConfigRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Rule Config Loader - Keeps the compiled rules_config up to date.
+ *
+ * Reads the whole table at startup and then periodically. When any row
+ * differs from the last read, the rows are compiled into a new RuleSet
+ * which replaces the active one atomically, and a {@link RuleSetChanged}
+ * event tells the rule chain to recompile its plan. If any active
+ * expression fails to compile, the active rule set stays in place.
+ */
+@Component
+@Slf4j
+public class RuleConfigLoader {
+
+    private final RuleConfigRepository ruleConfigRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final AtomicReference<RuleSet> current = new AtomicReference<>(RuleSet.EMPTY);
+
+    private volatile List<RuleDefinition> loadedDefinitions;
+
+    public RuleConfigLoader(
+            RuleConfigRepository ruleConfigRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${fraud.rules.config.enabled:true}") boolean enabled) {
+        this.ruleConfigRepository = ruleConfigRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("rules_config disabled, using built-in rule defaults");
+            return;
+        }
+        // The rule chain reads the initial rule set when it compiles its first plan
+        reload(false);
+    }
+
+    /**
+     * The active rule set.
+     */
+    public RuleSet current() {
+        return current.get();
+    }
+
+    /**
+     * Reload rules_config and swap in a new rule set if it changed.
+     */
+    @Scheduled(fixedDelayString = "${fraud.rules.config.reload-interval-ms:30000}")
+    public void reloadIfChanged() {
+        if (enabled) {
+            reload(true);
+        }
+    }
+
+    private synchronized void reload(boolean publish) {
+        List<RuleDefinition> definitions;
+        try {
+            definitions = ruleConfigRepository.findAllByOrderByPriorityAscRuleIdAsc().stream()
+                    .map(RuleDefinition::from)
+                    .toList();
+        } catch (Exception e) {
+            log.warn("Failed to read rules_config: {}", e.getMessage());
+            return;
+        }
+        if (definitions.equals(loadedDefinitions)) {
+            return;
+        }
+
+        // Remember the attempt so a broken row is not recompiled until it changes again
+        loadedDefinitions = definitions;
+        RuleSet ruleSet;
+        try {
+            ruleSet = compile(definitions);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid rules_config, keeping the active rule set: {}", e.getMessage());
+            return;
+        }
+
+        current.set(ruleSet);
+        log.info("Rule set loaded: {} rows, {} configured rules", definitions.size(), ruleSet.rules().size());
+        if (publish) {
+            eventPublisher.publishEvent(new RuleSetChanged(ruleSet));
+        }
+    }
+
+    static RuleSet compile(List<RuleDefinition> definitions) {
+        Map<String, RuleDefinition> definitionsById = new HashMap<>();
+        List<Rule> rules = new ArrayList<>();
+        for (RuleDefinition definition : definitions) {
+            definitionsById.put(definition.ruleId(), definition);
+            if (definition.active() && definition.hasCondition()) {
+                try {
+                    rules.add(new ConfiguredRule(definition));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Rule " + definition.ruleId() + ": " + e.getMessage(), e);
+                }
+            }
+        }
+        return new RuleSet(Map.copyOf(definitionsById), List.copyOf(rules));
+    }
+
+    /**
+     * Published after a new rule set was swapped in.
+     */
+    public record RuleSetChanged(RuleSet ruleSet) {
+    }
+}
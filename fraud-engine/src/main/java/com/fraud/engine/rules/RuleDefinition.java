@@ -0,0 +1,43 @@
+package com.fraud.engine.rules;
+
+import com.fraud.engine.entity.RuleConfig;
+
+import java.math.BigDecimal;
+
+/**
+ * Rule Definition - Immutable snapshot of one rules_config row.
+ *
+ * Two snapshots are equal when every field the engine uses is equal, so
+ * comparing the loaded lists tells whether the configuration changed.
+ */
+public record RuleDefinition(
+        String ruleId,
+        String ruleName,
+        String ruleType,
+        String description,
+        String conditionExpression,
+        BigDecimal thresholdValue,
+        String severity,
+        boolean active,
+        int priority) {
+
+    static RuleDefinition from(RuleConfig config) {
+        return new RuleDefinition(
+                config.getRuleId(),
+                config.getRuleName(),
+                config.getRuleType(),
+                config.getDescription(),
+                config.getConditionExpression(),
+                config.getThresholdValue(),
+                config.getSeverity(),
+                !Boolean.FALSE.equals(config.getIsActive()),
+                config.getPriority() != null ? config.getPriority() : 100);
+    }
+
+    /**
+     * Whether this row defines a rule of its own rather than tuning a built-in one.
+     */
+    boolean hasCondition() {
+        return conditionExpression != null && !conditionExpression.isBlank();
+    }
+}
@@ -0,0 +1,437 @@
+package com.fraud.engine.rules;
+
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.common.utils.DateTimeUtils;
+import com.fraud.engine.feature.FeatureSnapshot;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Rule Expression Compiler - Compiles rules_config condition expressions.
+ *
+ * An expression is parsed once into a tree of lambdas over the transaction
+ * and its feature snapshot; evaluating it walks no syntax tree and looks up
+ * no names. The grammar, loosest binding first:
+ *
+ * <pre>
+ *   or         := and (("||" | OR) and)*
+ *   and        := not (("&&" | AND) not)*
+ *   not        := ("!" | NOT) not | comparison
+ *   comparison := sum ((">" | ">=" | "<" | "<=" | "==" | "!=") sum)?
+ *   sum        := product (("+" | "-") product)*
+ *   product    := unary (("*" | "/") unary)*
+ *   unary      := "-" unary | number | 'text' | true | false | threshold | field | "(" or ")"
+ * </pre>
+ *
+ * {@code threshold} is the row's threshold_value, folded in as a constant.
+ * Text fields only support {@code ==} and {@code !=}.
+ *
+ * Comparisons of a {@link RuleAttribute} field with a text literal that
+ * must hold for the whole expression to be true, i.e. that are joined to
+ * it by AND only, are reported as preconditions so the rule can be indexed.
+ */
+final class RuleExpressionCompiler {
+
+    /**
+     * Compiled boolean expression.
+     */
+    @FunctionalInterface
+    interface Condition {
+        boolean test(TransactionEvent event, FeatureSnapshot features);
+    }
+
+    /**
+     * Compiled condition and the attribute values it requires.
+     */
+    record CompiledCondition(Condition condition, Map<RuleAttribute, String> preconditions) {
+    }
+
+    @FunctionalInterface
+    private interface NumericTerm {
+        double apply(TransactionEvent event, FeatureSnapshot features);
+    }
+
+    @FunctionalInterface
+    private interface TextTerm {
+        String apply(TransactionEvent event, FeatureSnapshot features);
+    }
+
+    private static final Map<String, NumericTerm> NUMERIC_FIELDS = Map.of(
+            "amount", (e, f) -> e.getAmount() != null ? e.getAmount().doubleValue() : 0.0,
+            "latitude", (e, f) -> e.getLatitude() != null ? e.getLatitude() : 0.0,
+            "longitude", (e, f) -> e.getLongitude() != null ? e.getLongitude() : 0.0,
+            "hourOfDay", (e, f) -> DateTimeUtils.getHourOfDay(timestamp(e)),
+            "dayOfWeek", (e, f) -> DateTimeUtils.getDayOfWeek(timestamp(e)),
+            "transactionsLastHour", (e, f) -> f.getTransactionCountLastHour(),
+            "amountLast24h", (e, f) -> f.getTransactionAmountLast24h() != null
+                    ? f.getTransactionAmountLast24h().doubleValue() : 0.0
+    );
+
+    private static final Map<String, Condition> BOOLEAN_FIELDS = Map.of(
+            "knownUser", (e, f) -> f.isKnownUser(),
+            "nightTime", (e, f) -> DateTimeUtils.isNightTime(timestamp(e)),
+            "weekend", (e, f) -> DateTimeUtils.isWeekend(timestamp(e)),
+            "ipChanged", (e, f) -> f.getLastKnownIp() != null && e.getIpAddress() != null
+                    && !f.getLastKnownIp().equals(e.getIpAddress()),
+            "locationChanged", (e, f) -> f.getLastKnownLocation() != null && e.getLocation() != null
+                    && !f.getLastKnownLocation().equalsIgnoreCase(e.getLocation())
+    );
+
+    private static final Map<String, TextTerm> TEXT_FIELDS = Map.of(
+            "userId", (e, f) -> e.getUserId(),
+            "currency", (e, f) -> e.getCurrency(),
+            "merchantId", (e, f) -> e.getMerchantId(),
+            "merchantCategory", (e, f) -> e.getMerchantCategory(),
+            "location", (e, f) -> e.getLocation(),
+            "ipAddress", (e, f) -> e.getIpAddress(),
+            "deviceId", (e, f) -> e.getDeviceId(),
+            "cardType", (e, f) -> e.getCardType(),
+            "transactionType", (e, f) -> e.getTransactionType(),
+            "channel", (e, f) -> e.getChannel()
+    );
+
+    private final List<Token> tokens;
+    private final BigDecimal threshold;
+    private int position;
+
+    private RuleExpressionCompiler(List<Token> tokens, BigDecimal threshold) {
+        this.tokens = tokens;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Compile a condition expression.
+     *
+     * @param expression The expression
+     * @param threshold  The value of {@code threshold}, or null if the rule has none
+     * @return The compiled condition
+     * @throws IllegalArgumentException if the expression is invalid or not boolean
+     */
+    static CompiledCondition compile(String expression, BigDecimal threshold) {
+        RuleExpressionCompiler compiler = new RuleExpressionCompiler(tokenize(expression), threshold);
+        Term term = compiler.parseOr();
+        if (compiler.peek().type() != TokenType.END) {
+            throw compiler.error("Unexpected '" + compiler.peek().text() + "'");
+        }
+        if (term.condition() == null) {
+            throw new IllegalArgumentException("Expression does not evaluate to true or false");
+        }
+        return new CompiledCondition(term.condition(), Map.copyOf(term.preconditions()));
+    }
+
+    private Term parseOr() {
+        Term left = parseAnd();
+        while (acceptOperator("||") || acceptKeyword("OR")) {
+            Condition a = left.asCondition(this, "||");
+            Condition b = parseAnd().asCondition(this, "||");
+            left = Term.condition((e, f) -> a.test(e, f) || b.test(e, f));
+        }
+        return left;
+    }
+
+    private Term parseAnd() {
+        Term left = parseNot();
+        while (acceptOperator("&&") || acceptKeyword("AND")) {
+            Condition a = left.asCondition(this, "&&");
+            Term right = parseNot();
+            Condition b = right.asCondition(this, "&&");
+            Map<RuleAttribute, String> preconditions = new EnumMap<>(RuleAttribute.class);
+            preconditions.putAll(right.preconditions());
+            preconditions.putAll(left.preconditions());
+            left = Term.condition((e, f) -> a.test(e, f) && b.test(e, f), preconditions);
+        }
+        return left;
+    }
+
+    private Term parseNot() {
+        if (acceptOperator("!") || acceptKeyword("NOT")) {
+            Condition operand = parseNot().asCondition(this, "!");
+            return Term.condition((e, f) -> !operand.test(e, f));
+        }
+        return parseComparison();
+    }
+
+    private Term parseComparison() {
+        Term left = parseSum();
+        Token operator = peek();
+        if (operator.type() != TokenType.OPERATOR || !isComparison(operator.text())) {
+            return left;
+        }
+        position++;
+        Term right = parseSum();
+
+        if (left.text() != null || right.text() != null) {
+            TextTerm a = left.asText(this, operator.text());
+            TextTerm b = right.asText(this, operator.text());
+            return switch (operator.text()) {
+                case "==" -> Term.condition((e, f) -> Objects.equals(a.apply(e, f), b.apply(e, f)),
+                        precondition(left, right));
+                case "!=" -> Term.condition((e, f) -> !Objects.equals(a.apply(e, f), b.apply(e, f)));
+                default -> throw error("Text can only be compared with == or !=");
+            };
+        }
+
+        NumericTerm a = left.asNumber(this, operator.text());
+        NumericTerm b = right.asNumber(this, operator.text());
+        return switch (operator.text()) {
+            case ">" -> Term.condition((e, f) -> a.apply(e, f) > b.apply(e, f));
+            case ">=" -> Term.condition((e, f) -> a.apply(e, f) >= b.apply(e, f));
+            case "<" -> Term.condition((e, f) -> a.apply(e, f) < b.apply(e, f));
+            case "<=" -> Term.condition((e, f) -> a.apply(e, f) <= b.apply(e, f));
+            case "==" -> Term.condition((e, f) -> a.apply(e, f) == b.apply(e, f));
+            default -> Term.condition((e, f) -> a.apply(e, f) != b.apply(e, f));
+        };
+    }
+
+    private Term parseSum() {
+        Term left = parseProduct();
+        while (peek().type() == TokenType.OPERATOR && (peek().text().equals("+") || peek().text().equals("-"))) {
+            String operator = tokens.get(position++).text();
+            NumericTerm a = left.asNumber(this, operator);
+            NumericTerm b = parseProduct().asNumber(this, operator);
+            left = operator.equals("+")
+                    ? Term.number((e, f) -> a.apply(e, f) + b.apply(e, f))
+                    : Term.number((e, f) -> a.apply(e, f) - b.apply(e, f));
+        }
+        return left;
+    }
+
+    private Term parseProduct() {
+        Term left = parseUnary();
+        while (peek().type() == TokenType.OPERATOR && (peek().text().equals("*") || peek().text().equals("/"))) {
+            String operator = tokens.get(position++).text();
+            NumericTerm a = left.asNumber(this, operator);
+            NumericTerm b = parseUnary().asNumber(this, operator);
+            left = operator.equals("*")
+                    ? Term.number((e, f) -> a.apply(e, f) * b.apply(e, f))
+                    : Term.number((e, f) -> a.apply(e, f) / b.apply(e, f));
+        }
+        return left;
+    }
+
+    private Term parseUnary() {
+        if (acceptOperator("-")) {
+            NumericTerm operand = parseUnary().asNumber(this, "-");
+            return Term.number((e, f) -> -operand.apply(e, f));
+        }
+
+        Token token = tokens.get(position++);
+        switch (token.type()) {
+            case NUMBER -> {
+                double value = Double.parseDouble(token.text());
+                return Term.number((e, f) -> value);
+            }
+            case TEXT -> {
+                String value = token.text();
+                return Term.literal((e, f) -> value, value);
+            }
+            case IDENTIFIER -> {
+                return identifier(token);
+            }
+            case OPERATOR -> {
+                if (token.text().equals("(")) {
+                    Term inner = parseOr();
+                    if (!acceptOperator(")")) {
+                        throw error("Expected ')'");
+                    }
+                    return inner;
+                }
+                throw error("Unexpected '" + token.text() + "'", token.position());
+            }
+            default -> throw error("Unexpected end of expression", token.position());
+        }
+    }
+
+    private Term identifier(Token token) {
+        String name = token.text();
+        if (name.equalsIgnoreCase("true")) {
+            return Term.condition((e, f) -> true);
+        }
+        if (name.equalsIgnoreCase("false")) {
+            return Term.condition((e, f) -> false);
+        }
+        if (name.equals("threshold")) {
+            if (threshold == null) {
+                throw error("Expression uses threshold but the rule has no threshold_value", token.position());
+            }
+            double value = threshold.doubleValue();
+            return Term.number((e, f) -> value);
+        }
+        if (NUMERIC_FIELDS.containsKey(name)) {
+            return Term.number(NUMERIC_FIELDS.get(name));
+        }
+        if (BOOLEAN_FIELDS.containsKey(name)) {
+            return Term.condition(BOOLEAN_FIELDS.get(name));
+        }
+        if (TEXT_FIELDS.containsKey(name)) {
+            return Term.attribute(TEXT_FIELDS.get(name), RuleAttribute.forField(name));
+        }
+        throw error("Unknown field '" + name + "'", token.position());
+    }
+
+    private static Map<RuleAttribute, String> precondition(Term left, Term right) {
+        if (left.attribute() != null && right.literal() != null) {
+            return Map.of(left.attribute(), right.literal());
+        }
+        if (right.attribute() != null && left.literal() != null) {
+            return Map.of(right.attribute(), left.literal());
+        }
+        return Map.of();
+    }
+
+    private boolean acceptOperator(String operator) {
+        Token token = peek();
+        if (token.type() == TokenType.OPERATOR && token.text().equals(operator)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        Token token = peek();
+        if (token.type() == TokenType.IDENTIFIER && token.text().equalsIgnoreCase(keyword)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private Token peek() {
+        return tokens.get(position);
+    }
+
+    private IllegalArgumentException error(String message) {
+        return error(message, peek().position());
+    }
+
+    private IllegalArgumentException error(String message, int at) {
+        return new IllegalArgumentException(message + " at position " + at);
+    }
+
+    private static boolean isComparison(String operator) {
+        return switch (operator) {
+            case ">", ">=", "<", "<=", "==", "!=" -> true;
+            default -> false;
+        };
+    }
+
+    private static Instant timestamp(TransactionEvent event) {
+        return event.getTimestamp() != null ? event.getTimestamp() : Instant.now();
+    }
+
+    private static List<Token> tokenize(String expression) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < expression.length()
+                    && Character.isDigit(expression.charAt(i + 1)))) {
+                int start = i;
+                while (i < expression.length()
+                        && (Character.isDigit(expression.charAt(i)) || expression.charAt(i) == '.')) {
+                    i++;
+                }
+                String number = expression.substring(start, i);
+                try {
+                    Double.parseDouble(number);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid number '" + number + "' at position " + start);
+                }
+                tokens.add(new Token(TokenType.NUMBER, number, start));
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < expression.length()
+                        && (Character.isLetterOrDigit(expression.charAt(i)) || expression.charAt(i) == '_')) {
+                    i++;
+                }
+                tokens.add(new Token(TokenType.IDENTIFIER, expression.substring(start, i), start));
+            } else if (c == '\'') {
+                int end = expression.indexOf('\'', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("Unterminated text at position " + i);
+                }
+                tokens.add(new Token(TokenType.TEXT, expression.substring(i + 1, end), i));
+                i = end + 1;
+            } else {
+                String two = i + 1 < expression.length() ? expression.substring(i, i + 2) : "";
+                if (two.equals(">=") || two.equals("<=") || two.equals("==") || two.equals("!=")
+                        || two.equals("&&") || two.equals("||")) {
+                    tokens.add(new Token(TokenType.OPERATOR, two, i));
+                    i += 2;
+                } else if ("<>!+-*/()".indexOf(c) >= 0) {
+                    tokens.add(new Token(TokenType.OPERATOR, String.valueOf(c), i));
+                    i++;
+                } else {
+                    throw new IllegalArgumentException("Unexpected character '" + c + "' at position " + i);
+                }
+            }
+        }
+        tokens.add(new Token(TokenType.END, "", expression.length()));
+        return tokens;
+    }
+
+    private enum TokenType {
+        NUMBER, TEXT, IDENTIFIER, OPERATOR, END
+    }
+
+    private record Token(TokenType type, String text, int position) {
+    }
+
+    /**
+     * A compiled subexpression; exactly one of number, condition and text is set.
+     * A text term also records the attribute it reads or the literal it is.
+     */
+    private record Term(NumericTerm number, Condition condition, TextTerm text,
+                        RuleAttribute attribute, String literal, Map<RuleAttribute, String> preconditions) {
+
+        static Term number(NumericTerm number) {
+            return new Term(number, null, null, null, null, Map.of());
+        }
+
+        static Term condition(Condition condition) {
+            return condition(condition, Map.of());
+        }
+
+        static Term condition(Condition condition, Map<RuleAttribute, String> preconditions) {
+            return new Term(null, condition, null, null, null, preconditions);
+        }
+
+        static Term attribute(TextTerm text, RuleAttribute attribute) {
+            return new Term(null, null, text, attribute, null, Map.of());
+        }
+
+        static Term literal(TextTerm text, String literal) {
+            return new Term(null, null, text, null, literal, Map.of());
+        }
+
+        NumericTerm asNumber(RuleExpressionCompiler compiler, String operator) {
+            if (number == null) {
+                throw compiler.error("'" + operator + "' needs a number");
+            }
+            return number;
+        }
+
+        Condition asCondition(RuleExpressionCompiler compiler, String operator) {
+            if (condition == null) {
+                throw compiler.error("'" + operator + "' needs a condition");
+            }
+            return condition;
+        }
+
+        TextTerm asText(RuleExpressionCompiler compiler, String operator) {
+            if (text == null) {
+                throw compiler.error("'" + operator + "' needs text on both sides");
+            }
+            return text;
+        }
+    }
+}
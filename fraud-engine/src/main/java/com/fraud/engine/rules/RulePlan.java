@@ -0,0 +1,194 @@
+package com.fraud.engine.rules;
+
+import com.fraud.common.dto.TransactionEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Rule Plan - Immutable evaluation order of the enabled rules.
+ *
+ * A plan starts in priority order and records, per rule, how often it was
+ * evaluated, how often it triggered, the score it contributed and the time
+ * it took. {@link #reordered} derives the next plan from those statistics:
+ * rules that contribute the most score per nanosecond run first, so the
+ * chain reaches the score cap, and can stop, as early as possible.
+ *
+ * Rules with preconditions are indexed by value under their most
+ * selective {@link RuleAttribute}, so {@link #candidates} finds the rules
+ * a transaction can match with one hash lookup per attribute, and its
+ * cost grows with the number of matching rules rather than all rules.
+ */
+final class RulePlan {
+
+    private static final RuleAttribute[] ATTRIBUTES = RuleAttribute.values();
+
+    private final Rule[] rules;
+    private final RuleStats[] stats;
+
+    /** Plan positions of the rules without preconditions. */
+    private final int[] unindexed;
+
+    /** Per attribute, the plan positions of the rules indexed under each value. */
+    private final List<Map<String, int[]>> index;
+
+    private RulePlan(Rule[] rules) {
+        this.rules = rules;
+        this.stats = new RuleStats[rules.length];
+
+        List<Integer> unindexedPositions = new ArrayList<>();
+        List<Map<String, List<Integer>>> positions = new ArrayList<>(ATTRIBUTES.length);
+        for (int a = 0; a < ATTRIBUTES.length; a++) {
+            positions.add(new HashMap<>());
+        }
+        for (int i = 0; i < rules.length; i++) {
+            stats[i] = new RuleStats();
+            Map<RuleAttribute, String> preconditions = rules[i].getPreconditions();
+            RuleAttribute key = Arrays.stream(ATTRIBUTES).filter(preconditions::containsKey).findFirst().orElse(null);
+            if (key == null) {
+                unindexedPositions.add(i);
+            } else {
+                positions.get(key.ordinal()).computeIfAbsent(preconditions.get(key), v -> new ArrayList<>()).add(i);
+            }
+        }
+
+        this.unindexed = toArray(unindexedPositions);
+        this.index = positions.stream()
+                .map(byValue -> byValue.entrySet().stream()
+                        .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> toArray(e.getValue()))))
+                .toList();
+    }
+
+    /**
+     * Compile the enabled rules into a plan in priority order.
+     */
+    static RulePlan byPriority(List<Rule> rules) {
+        return new RulePlan(rules.stream()
+                .filter(Rule::isEnabled)
+                .sorted(Comparator.comparingInt(Rule::getPriority))
+                .toArray(Rule[]::new));
+    }
+
+    /**
+     * Derive a plan ordered by the statistics gathered so far, with fresh statistics.
+     *
+     * @param minSamples Evaluations needed before the order is changed
+     * @return The reordered plan, or this plan if too few evaluations were recorded
+     */
+    RulePlan reordered(long minSamples) {
+        long samples = Arrays.stream(stats).mapToLong(s -> s.evaluations.sum()).max().orElse(0);
+        if (samples < minSamples) {
+            return this;
+        }
+
+        Integer[] order = new Integer[rules.length];
+        double[] yield = new double[rules.length];
+        double[] cost = new double[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            order[i] = i;
+            long nanos = Math.max(1, stats[i].nanos.sum());
+            long evaluations = Math.max(1, stats[i].evaluations.sum());
+            yield[i] = (double) stats[i].scoreSum.sum() / nanos;
+            cost[i] = (double) nanos / evaluations;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(i -> -yield[i])
+                .thenComparingDouble(i -> cost[i])
+                .thenComparingInt(i -> rules[i].getPriority()));
+
+        Rule[] ordered = new Rule[rules.length];
+        for (int i = 0; i < order.length; i++) {
+            ordered[i] = rules[order[i]];
+        }
+        return new RulePlan(ordered);
+    }
+
+    /**
+     * Plan positions of the rules a transaction can match, in plan order.
+     *
+     * @param event The transaction
+     * @return Positions of the unindexed rules and of the indexed rules whose key matches
+     */
+    int[] candidates(TransactionEvent event) {
+        int[] candidates = unindexed;
+        for (int a = 0; a < ATTRIBUTES.length; a++) {
+            Map<String, int[]> byValue = index.get(a);
+            if (byValue.isEmpty()) {
+                continue;
+            }
+            String value = ATTRIBUTES[a].valueOf(event);
+            int[] matched = value != null ? byValue.get(value) : null;
+            if (matched != null) {
+                int[] merged = Arrays.copyOf(candidates, candidates.length + matched.length);
+                System.arraycopy(matched, 0, merged, candidates.length, matched.length);
+                candidates = merged;
+            }
+        }
+        if (candidates != unindexed) {
+            Arrays.sort(candidates);
+        }
+        return candidates;
+    }
+
+    int size() {
+        return rules.length;
+    }
+
+    Rule rule(int index) {
+        return rules[index];
+    }
+
+    RuleStats stats(int index) {
+        return stats[index];
+    }
+
+    /**
+     * Rule IDs in evaluation order.
+     */
+    List<String> ruleIds() {
+        return Arrays.stream(rules).map(Rule::getRuleId).toList();
+    }
+
+    /**
+     * Per-rule hit rate and average cost gathered so far, in evaluation order.
+     */
+    String describeStats() {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < rules.length; i++) {
+            long evaluations = Math.max(1, stats[i].evaluations.sum());
+            description.append(i == 0 ? "" : ", ")
+                    .append(rules[i].getRuleId())
+                    .append(String.format(" (hit %.1f%%, %d ns)",
+                            100.0 * stats[i].triggers.sum() / evaluations, stats[i].nanos.sum() / evaluations));
+        }
+        return description.toString();
+    }
+
+    private static int[] toArray(List<Integer> positions) {
+        return positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Evaluation statistics of one rule in a plan.
+     */
+    static final class RuleStats {
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder triggers = new LongAdder();
+        private final LongAdder scoreSum = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        void record(long elapsedNanos, boolean triggered, int score) {
+            evaluations.increment();
+            nanos.add(elapsedNanos);
+            if (triggered) {
+                triggers.increment();
+                scoreSum.add(score);
+            }
+        }
+    }
+}
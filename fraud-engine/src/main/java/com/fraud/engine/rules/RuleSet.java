@@ -0,0 +1,52 @@
+package com.fraud.engine.rules;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rule Set - One compiled version of the rules_config table.
+ *
+ * Holds the rules defined by condition expressions together with every
+ * row by rule ID, which the built-in rules read their thresholds and
+ * active flag from. Rule sets are immutable and replaced as a whole.
+ */
+public final class RuleSet {
+
+    static final RuleSet EMPTY = new RuleSet(Map.of(), List.of());
+
+    private final Map<String, RuleDefinition> definitionsById;
+    private final List<Rule> rules;
+
+    RuleSet(Map<String, RuleDefinition> definitionsById, List<Rule> rules) {
+        this.definitionsById = definitionsById;
+        this.rules = rules;
+    }
+
+    /**
+     * Rules compiled from condition expressions.
+     */
+    List<Rule> rules() {
+        return rules;
+    }
+
+    /**
+     * Whether a rule is active; rules without a row are.
+     */
+    public boolean isActive(String ruleId) {
+        RuleDefinition definition = definitionsById.get(ruleId);
+        return definition == null || definition.active();
+    }
+
+    /**
+     * The configured threshold of a rule.
+     *
+     * @param ruleId   The rule ID
+     * @param fallback Threshold to use if the rule has no row or no threshold_value
+     * @return The threshold
+     */
+    public BigDecimal threshold(String ruleId, BigDecimal fallback) {
+        RuleDefinition definition = definitionsById.get(ruleId);
+        return definition != null && definition.thresholdValue() != null ? definition.thresholdValue() : fallback;
+    }
+}
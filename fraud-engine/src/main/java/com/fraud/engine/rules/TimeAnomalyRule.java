@@ -1,13 +1,15 @@
 package com.fraud.engine.rules;
 
 import com.fraud.common.dto.FraudResult;
+import com.fraud.common.dto.ReasonCode;
 import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.feature.FeatureSnapshot;
 import com.fraud.common.utils.DateTimeUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 
 /**
  * Time Anomaly Rule - Flags transactions during unusual hours.
@@ -16,6 +18,9 @@ import java.time.Instant;
 @Slf4j
 public class TimeAnomalyRule implements Rule {
 
+    private static final FraudResult.Reason NORMAL = FraudResult.Reason.of(ReasonCode.TIME_NORMAL);
+    private static final FraudResult.Reason UNAVAILABLE = FraudResult.Reason.of(ReasonCode.TIME_UNAVAILABLE);
+
     @Override
     public String getRuleId() {
         return "RULE_007";
@@ -37,10 +42,11 @@ public class TimeAnomalyRule implements Rule {
     }
 
     @Override
-    public FraudResult.RuleEvaluation evaluate(TransactionEvent event, FraudResult.FraudResultBuilder resultBuilder) {
+    public FraudResult.RuleEvaluation evaluate(TransactionEvent event, FeatureSnapshot features,
+                                               FraudResult.FraudResultBuilder resultBuilder) {
         boolean triggered = false;
-        BigDecimal score = BigDecimal.ZERO;
-        String message = "Transaction time within normal hours";
+        int score = RiskScores.ZERO;
+        FraudResult.Reason reason = NORMAL;
 
         Instant timestamp = event.getTimestamp();
         if (timestamp == null) {
@@ -51,34 +57,34 @@ public class TimeAnomalyRule implements Rule {
             // Check if transaction is during night time (1 AM - 5 AM)
             if (DateTimeUtils.isNightTime(timestamp)) {
                 triggered = true;
-                score = new BigDecimal("0.2");
+                score = 2_000;
                 int hour = DateTimeUtils.getHourOfDay(timestamp);
-                message = String.format("Transaction at unusual hour: %02d:00 UTC (1-5 AM window)", hour);
+                reason = FraudResult.Reason.of(ReasonCode.TIME_NIGHT, hour);
                 log.info("Rule {} triggered: Night-time transaction at {} UTC", getRuleId(), hour);
-            }
 
-            // Additional flag for weekend+night combo (higher risk)
-            if (triggered && DateTimeUtils.isWeekend(timestamp)) {
-                score = score.add(new BigDecimal("0.1"));
-                message += " on weekend";
-                log.info("Rule {} increased risk: Weekend night-time transaction", getRuleId());
+                // Additional flag for weekend+night combo (higher risk)
+                if (DateTimeUtils.isWeekend(timestamp)) {
+                    score += 1_000;
+                    reason = FraudResult.Reason.of(ReasonCode.TIME_NIGHT_WEEKEND, hour);
+                    log.info("Rule {} increased risk: Weekend night-time transaction", getRuleId());
+                }
             }
 
         } catch (Exception e) {
             log.error("Error evaluating time rule: {}", e.getMessage());
-            message = "Unable to evaluate transaction time";
+            reason = UNAVAILABLE;
         }
 
-        return buildEvaluation(triggered, score, message);
+        return buildEvaluation(triggered, score, reason);
     }
 
-    private FraudResult.RuleEvaluation buildEvaluation(boolean triggered, BigDecimal score, String message) {
+    private FraudResult.RuleEvaluation buildEvaluation(boolean triggered, int score, FraudResult.Reason reason) {
         return FraudResult.RuleEvaluation.builder()
                 .ruleId(getRuleId())
                 .ruleName(getRuleName())
                 .triggered(triggered)
-                .score(score)
-                .message(message)
+                .score(RiskScores.toDecimal(score))
+                .reasons(List.of(reason))
                 .build();
     }
 }
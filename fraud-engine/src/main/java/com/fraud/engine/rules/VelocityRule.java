@@ -1,32 +1,45 @@
 package com.fraud.engine.rules;
 
 import com.fraud.common.dto.FraudResult;
+import com.fraud.common.dto.ReasonCode;
 import com.fraud.common.dto.TransactionEvent;
-import com.fraud.engine.repository.TransactionRepository;
-import lombok.RequiredArgsConstructor;
+import com.fraud.engine.feature.FeatureSnapshot;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Velocity Rule - Flags users with unusual transaction frequency.
+ *
+ * Reads the user's recent activity from the prefetched feature snapshot.
+ * The hourly count and 24h amount limits come from the threshold_value of
+ * RULE_003 and RULE_004 in rules_config, falling back to the configured
+ * defaults.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class VelocityRule implements Rule {
 
-    private final TransactionRepository transactionRepository;
+    private static final List<FraudResult.Reason> NORMAL =
+            List.of(FraudResult.Reason.of(ReasonCode.VELOCITY_NORMAL));
+    private static final List<FraudResult.Reason> UNAVAILABLE =
+            List.of(FraudResult.Reason.of(ReasonCode.VELOCITY_UNAVAILABLE));
+    private static final List<FraudResult.Reason> USER_NOT_PROVIDED =
+            List.of(FraudResult.Reason.of(ReasonCode.USER_NOT_PROVIDED));
+
+    private static final String AMOUNT_RULE_ID = "RULE_004";
 
     @Value("${fraud.rules.velocity.max-transactions-per-hour:10}")
-    private int maxTransactionsPerHour;
+    private int defaultMaxTransactionsPerHour;
 
     @Value("${fraud.rules.velocity.max-amount-24h:25000}")
-    private BigDecimal maxAmount24h;
+    private BigDecimal defaultMaxAmount24h;
+
+    private volatile Limits limits;
 
     @Override
     public String getRuleId() {
@@ -49,62 +62,73 @@ public class VelocityRule implements Rule {
     }
 
     @Override
-    public FraudResult.RuleEvaluation evaluate(TransactionEvent event, FraudResult.FraudResultBuilder resultBuilder) {
+    public void configure(RuleSet ruleSet) {
+        limits = new Limits(
+                ruleSet.threshold(getRuleId(), BigDecimal.valueOf(defaultMaxTransactionsPerHour)).intValue(),
+                ruleSet.threshold(AMOUNT_RULE_ID, defaultMaxAmount24h));
+    }
+
+    @Override
+    public FraudResult.RuleEvaluation evaluate(TransactionEvent event, FeatureSnapshot features,
+                                               FraudResult.FraudResultBuilder resultBuilder) {
         String userId = event.getUserId();
+        int maxTransactionsPerHour = limits.maxTransactionsPerHour();
+        BigDecimal maxAmount24h = limits.maxAmount24h();
         boolean triggered = false;
-        BigDecimal score = BigDecimal.ZERO;
-        StringBuilder messageBuilder = new StringBuilder();
+        int score = RiskScores.ZERO;
+        List<FraudResult.Reason> reasons = new ArrayList<>(2);
 
         if (userId == null || userId.isBlank()) {
-            return buildEvaluation(false, BigDecimal.ZERO, "User ID not provided");
+            return buildEvaluation(false, RiskScores.ZERO, USER_NOT_PROVIDED);
         }
 
         try {
             // Check transaction count in last hour
-            Instant oneHourAgo = Instant.now().minus(1, ChronoUnit.HOURS);
-            Long transactionCount = transactionRepository.countTransactionsByUserSince(userId, oneHourAgo);
+            long transactionCount = features.getTransactionCountLastHour();
 
             if (transactionCount >= maxTransactionsPerHour) {
                 triggered = true;
-                score = new BigDecimal("0.6");
-                messageBuilder.append(String.format("Velocity breach: %d transactions in last hour (max: %d). ",
+                score = 6_000;
+                reasons.add(FraudResult.Reason.of(ReasonCode.VELOCITY_COUNT_BREACH,
                         transactionCount, maxTransactionsPerHour));
                 log.warn("Rule {} triggered: User {} has {} transactions in last hour",
                         getRuleId(), userId, transactionCount);
             }
 
             // Check total amount in last 24 hours
-            Instant twentyFourHoursAgo = Instant.now().minus(24, ChronoUnit.HOURS);
-            BigDecimal totalAmount = transactionRepository.sumAmountByUserSince(userId, twentyFourHoursAgo);
+            BigDecimal totalAmount = features.getTransactionAmountLast24h();
 
             if (totalAmount != null && totalAmount.add(event.getAmount()).compareTo(maxAmount24h) > 0) {
                 triggered = true;
-                score = score.max(new BigDecimal("0.5"));
-                messageBuilder.append(String.format("24h amount breach: $%s + $%s exceeds max $%s. ",
+                score = Math.max(score, 5_000);
+                reasons.add(FraudResult.Reason.of(ReasonCode.VELOCITY_AMOUNT_BREACH,
                         totalAmount, event.getAmount(), maxAmount24h));
                 log.warn("Rule {} triggered: User {} 24h total ${} exceeds threshold",
                         getRuleId(), userId, totalAmount.add(event.getAmount()));
             }
 
             if (!triggered) {
-                messageBuilder.append("Transaction velocity within normal limits");
+                reasons = NORMAL;
             }
 
         } catch (Exception e) {
             log.error("Error evaluating velocity rule for user {}: {}", userId, e.getMessage());
-            messageBuilder.append("Unable to evaluate velocity - proceeding with caution");
+            reasons = UNAVAILABLE;
         }
 
-        return buildEvaluation(triggered, score, messageBuilder.toString().trim());
+        return buildEvaluation(triggered, score, reasons);
     }
 
-    private FraudResult.RuleEvaluation buildEvaluation(boolean triggered, BigDecimal score, String message) {
+    private FraudResult.RuleEvaluation buildEvaluation(boolean triggered, int score, List<FraudResult.Reason> reasons) {
         return FraudResult.RuleEvaluation.builder()
                 .ruleId(getRuleId())
                 .ruleName(getRuleName())
                 .triggered(triggered)
-                .score(score)
-                .message(message)
+                .score(RiskScores.toDecimal(score))
+                .reasons(reasons)
                 .build();
     }
+
+    private record Limits(int maxTransactionsPerHour, BigDecimal maxAmount24h) {
+    }
 }
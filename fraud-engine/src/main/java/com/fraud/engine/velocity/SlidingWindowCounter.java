@@ -0,0 +1,89 @@
+package com.fraud.engine.velocity;
+
+/**
+ * Sliding Window Counter - Transaction count and amount for one entity key.
+ *
+ * Each window is a fixed-size ring of time buckets held in flat primitive
+ * arrays, with running totals per window so reads are O(1). Advancing a
+ * window clears at most one ring's worth of buckets. A window of length W
+ * split into B buckets covers between W - W/B and W of history.
+ *
+ * Amounts are kept in units of 1/10,000 to stay exact without BigDecimal.
+ */
+final class SlidingWindowCounter {
+
+    private final long[] bucketMillis;
+    private final int buckets;
+
+    private final int[] slotCount;
+    private final long[] slotAmount;
+    private final long[] headBucket;
+    private final long[] totalCount;
+    private final long[] totalAmount;
+
+    private volatile long lastUpdatedMillis;
+
+    SlidingWindowCounter(long[] bucketMillis, int buckets, long nowMillis) {
+        int windows = bucketMillis.length;
+        this.bucketMillis = bucketMillis;
+        this.buckets = buckets;
+        this.slotCount = new int[windows * buckets];
+        this.slotAmount = new long[windows * buckets];
+        this.headBucket = new long[windows];
+        this.totalCount = new long[windows];
+        this.totalAmount = new long[windows];
+        for (int w = 0; w < windows; w++) {
+            headBucket[w] = nowMillis / bucketMillis[w];
+        }
+        this.lastUpdatedMillis = nowMillis;
+    }
+
+    synchronized void add(long nowMillis, long amountUnits) {
+        for (int w = 0; w < bucketMillis.length; w++) {
+            advance(w, nowMillis);
+            int slot = w * buckets + (int) (headBucket[w] % buckets);
+            slotCount[slot]++;
+            slotAmount[slot] += amountUnits;
+            totalCount[w]++;
+            totalAmount[w] += amountUnits;
+        }
+        lastUpdatedMillis = nowMillis;
+    }
+
+    synchronized long count(int window, long nowMillis) {
+        advance(window, nowMillis);
+        return totalCount[window];
+    }
+
+    synchronized long amount(int window, long nowMillis) {
+        advance(window, nowMillis);
+        return totalAmount[window];
+    }
+
+    long getLastUpdatedMillis() {
+        return lastUpdatedMillis;
+    }
+
+    /**
+     * Move the head of a window to the current bucket, clearing buckets that fell out of it.
+     * Readings from a clock slightly behind the head are counted in the head bucket.
+     */
+    private void advance(int window, long nowMillis) {
+        long current = nowMillis / bucketMillis[window];
+        long head = headBucket[window];
+        if (current <= head) {
+            return;
+        }
+
+        long steps = Math.min(current - head, buckets);
+        int base = window * buckets;
+        for (long bucket = current - steps + 1; bucket <= current; bucket++) {
+            int slot = base + (int) (bucket % buckets);
+            totalCount[window] -= slotCount[slot];
+            totalAmount[window] -= slotAmount[slot];
+            slotCount[slot] = 0;
+            slotAmount[slot] = 0;
+        }
+        headBucket[window] = current;
+    }
+}
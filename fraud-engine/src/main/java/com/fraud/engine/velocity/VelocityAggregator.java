@@ -0,0 +1,202 @@
+package com.fraud.engine.velocity;
+
+import com.fraud.common.dto.TransactionEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Velocity Aggregator - In-memory sliding-window velocity per entity.
+ *
+ * Keeps transaction counts and amounts for every {@link VelocityDimension}
+ * over the configured windows, so velocity checks are O(1) lookups with no
+ * database round-trip. Keys idle for longer than the largest window carry
+ * no history and are evicted periodically.
+ *
+ * The aggregator only knows about transactions decided by this instance
+ * while it owned their Kafka partition. Transactions are keyed by user, so
+ * ownership is tracked per partition: {@link #covers} tells whether a
+ * partition has been owned for a whole window, so that its users' counts
+ * over the window are complete. A partition that is revoked and assigned
+ * again starts over, since another instance may have decided its
+ * transactions in between.
+ */
+@Component
+@Slf4j
+public class VelocityAggregator {
+
+    /** Partition of transactions that were not read from Kafka; never covered. */
+    public static final int NO_PARTITION = -1;
+
+    private static final int AMOUNT_SCALE = 4;
+
+    private final Duration[] windows;
+    private final long[] bucketMillis;
+    private final int bucketsPerWindow;
+    private final long idleEvictionMillis;
+    private final Map<VelocityDimension, ConcurrentHashMap<String, SlidingWindowCounter>> counters =
+            new EnumMap<>(VelocityDimension.class);
+    private final Map<Integer, Long> partitionsOwnedSince = new ConcurrentHashMap<>();
+
+    public VelocityAggregator(
+            @Value("${fraud.velocity.windows:1m,5m,1h,24h,7d}") List<Duration> windows,
+            @Value("${fraud.velocity.buckets-per-window:24}") int bucketsPerWindow,
+            MeterRegistry meterRegistry) {
+
+        this.windows = windows.toArray(new Duration[0]);
+        this.bucketsPerWindow = bucketsPerWindow;
+        this.bucketMillis = new long[this.windows.length];
+
+        long largestWindow = 0;
+        for (int w = 0; w < this.windows.length; w++) {
+            long windowMillis = this.windows[w].toMillis();
+            if (windowMillis < bucketsPerWindow) {
+                throw new IllegalArgumentException("Velocity window " + this.windows[w] + " is too short");
+            }
+            bucketMillis[w] = windowMillis / bucketsPerWindow;
+            largestWindow = Math.max(largestWindow, windowMillis);
+        }
+        this.idleEvictionMillis = largestWindow;
+
+        for (VelocityDimension dimension : VelocityDimension.values()) {
+            ConcurrentHashMap<String, SlidingWindowCounter> dimensionCounters = new ConcurrentHashMap<>();
+            counters.put(dimension, dimensionCounters);
+            Gauge.builder("fraud.velocity.tracked.keys", dimensionCounters, Map::size)
+                    .tag("dimension", dimension.name())
+                    .register(meterRegistry);
+        }
+
+        log.info("Velocity aggregator initialized with windows {} and {} buckets per window",
+                windows, bucketsPerWindow);
+    }
+
+    /**
+     * Start observing newly assigned partitions.
+     *
+     * @param partitions The partitions assigned to this instance
+     */
+    public void partitionsAssigned(Collection<Integer> partitions) {
+        long now = System.currentTimeMillis();
+        partitions.forEach(partition -> partitionsOwnedSince.putIfAbsent(partition, now));
+    }
+
+    /**
+     * Stop observing revoked partitions.
+     *
+     * @param partitions The partitions revoked from this instance
+     */
+    public void partitionsRevoked(Collection<Integer> partitions) {
+        partitions.forEach(partitionsOwnedSince::remove);
+    }
+
+    /**
+     * Whether this instance has owned a partition for at least the given
+     * window, so its counts over that window are complete for the users
+     * of that partition.
+     *
+     * @param window    The window to check
+     * @param partition The Kafka partition of the user's transactions
+     * @return true once the window has fully elapsed since the partition was assigned
+     */
+    public boolean covers(Duration window, int partition) {
+        Long ownedSince = partitionsOwnedSince.get(partition);
+        return ownedSince != null && System.currentTimeMillis() - ownedSince >= window.toMillis();
+    }
+
+    /**
+     * Record a transaction against every dimension it carries a key for.
+     *
+     * @param event The decided transaction
+     */
+    public void record(TransactionEvent event) {
+        long now = System.currentTimeMillis();
+        long amountUnits = event.getAmount() != null
+                ? event.getAmount().movePointRight(AMOUNT_SCALE).longValue()
+                : 0L;
+
+        for (VelocityDimension dimension : VelocityDimension.values()) {
+            String key = dimension.keyOf(event);
+            if (key != null) {
+                // Updated inside compute so a concurrent eviction cannot drop the update
+                counters.get(dimension).compute(key, (k, counter) -> {
+                    SlidingWindowCounter target = counter != null
+                            ? counter
+                            : new SlidingWindowCounter(bucketMillis, bucketsPerWindow, now);
+                    target.add(now, amountUnits);
+                    return target;
+                });
+            }
+        }
+    }
+
+    /**
+     * Get the number of transactions for a key within a window.
+     *
+     * @param dimension The entity dimension
+     * @param key       The entity key
+     * @param window    One of the configured windows
+     * @return Transaction count, 0 if the key is unknown
+     */
+    public long getCount(VelocityDimension dimension, String key, Duration window) {
+        int index = indexOf(window);
+        SlidingWindowCounter counter = counters.get(dimension).get(key);
+        return counter != null ? counter.count(index, System.currentTimeMillis()) : 0L;
+    }
+
+    /**
+     * Get the total transaction amount for a key within a window.
+     *
+     * @param dimension The entity dimension
+     * @param key       The entity key
+     * @param window    One of the configured windows
+     * @return Total amount, zero if the key is unknown
+     */
+    public BigDecimal getAmount(VelocityDimension dimension, String key, Duration window) {
+        int index = indexOf(window);
+        SlidingWindowCounter counter = counters.get(dimension).get(key);
+        return counter != null
+                ? BigDecimal.valueOf(counter.amount(index, System.currentTimeMillis()), AMOUNT_SCALE)
+                : BigDecimal.ZERO;
+    }
+
+    /**
+     * Evict keys that have been idle for longer than the largest window.
+     */
+    @Scheduled(fixedDelayString = "${fraud.velocity.eviction-interval-ms:60000}")
+    public void evictIdleKeys() {
+        long cutoff = System.currentTimeMillis() - idleEvictionMillis;
+        for (Map.Entry<VelocityDimension, ConcurrentHashMap<String, SlidingWindowCounter>> entry : counters.entrySet()) {
+            ConcurrentHashMap<String, SlidingWindowCounter> dimensionCounters = entry.getValue();
+            int evicted = 0;
+            for (String key : dimensionCounters.keySet()) {
+                if (dimensionCounters.computeIfPresent(key, (k, counter) ->
+                        counter.getLastUpdatedMillis() < cutoff ? null : counter) == null) {
+                    evicted++;
+                }
+            }
+            if (evicted > 0) {
+                log.debug("Evicted {} idle {} velocity keys", evicted, entry.getKey());
+            }
+        }
+    }
+
+    private int indexOf(Duration window) {
+        for (int w = 0; w < windows.length; w++) {
+            if (windows[w].equals(window)) {
+                return w;
+            }
+        }
+        throw new IllegalArgumentException("Velocity window " + window + " is not configured");
+    }
+}
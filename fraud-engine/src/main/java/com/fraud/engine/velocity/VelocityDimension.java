@@ -0,0 +1,36 @@
+package com.fraud.engine.velocity;
+
+import com.fraud.common.dto.TransactionEvent;
+
+import java.util.function.Function;
+
+/**
+ * Velocity Dimension - Entity keys that velocity is aggregated by.
+ */
+public enum VelocityDimension {
+
+    USER(TransactionEvent::getUserId),
+    CARD(event -> event.getCardLastFour() == null || event.getCardType() == null
+            ? null
+            : event.getCardType() + ":" + event.getCardLastFour()),
+    DEVICE(TransactionEvent::getDeviceId),
+    IP(TransactionEvent::getIpAddress),
+    MERCHANT(TransactionEvent::getMerchantId);
+
+    private final Function<TransactionEvent, String> keyExtractor;
+
+    VelocityDimension(Function<TransactionEvent, String> keyExtractor) {
+        this.keyExtractor = keyExtractor;
+    }
+
+    /**
+     * Extract the key of this dimension from a transaction.
+     *
+     * @param event The transaction
+     * @return The key, or null if the transaction does not carry one
+     */
+    public String keyOf(TransactionEvent event) {
+        String key = keyExtractor.apply(event);
+        return key == null || key.isBlank() ? null : key;
+    }
+}
@@ -0,0 +1,126 @@
+package com.fraud.engine.feature;
+
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.cache.UserProfileCache;
+import com.fraud.engine.repository.TransactionRepository;
+import com.fraud.engine.repository.UserActivityBucket;
+import com.fraud.engine.velocity.VelocityAggregator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FeaturePrefetcherTest {
+
+    private final UserProfileCache userProfileCache = mock(UserProfileCache.class);
+    private final TransactionRepository transactionRepository = mock(TransactionRepository.class);
+    private final VelocityAggregator velocityAggregator = new VelocityAggregator(
+            List.of(Duration.ofHours(1), Duration.ofHours(24)), 24, new SimpleMeterRegistry());
+
+    private final FeaturePrefetcher prefetcher =
+            new FeaturePrefetcher(userProfileCache, velocityAggregator, transactionRepository);
+
+    @BeforeEach
+    void setUp() {
+        when(userProfileCache.getAll(anyCollection())).thenReturn(Map.of());
+    }
+
+    @Test
+    void readsBucketsForUsersOfNewlyAssignedPartitions() {
+        velocityAggregator.partitionsAssigned(List.of(3));
+        when(transactionRepository.findActivityBucketsByUsersSince(eq(List.of("user-1")), any()))
+                .thenReturn(List.of(bucket("user-1", Instant.now().truncatedTo(ChronoUnit.HOURS), 12, "900.00")));
+
+        List<FeatureSnapshot> snapshots = prefetcher.prefetch(
+                List.of(event("user-1", "50.00"), event("user-1", "25.00")), List.of(3, 3));
+
+        assertThat(snapshots.get(0).getTransactionCountLastHour()).isEqualTo(12);
+        assertThat(snapshots.get(0).getTransactionAmountLast24h()).isEqualByComparingTo("900.00");
+        assertThat(snapshots.get(1).getTransactionCountLastHour()).as("sees the earlier event").isEqualTo(13);
+        assertThat(snapshots.get(1).getTransactionAmountLast24h()).isEqualByComparingTo("950.00");
+    }
+
+    @Test
+    void countsTheBucketAtTheWindowStartProRata() {
+        // At 10:59 the last hour starts at 09:59, so one minute of the 09:00 bucket is in the window
+        Instant since = Instant.parse("2024-01-10T09:59:00Z");
+        List<UserActivityBucket> buckets = List.of(
+                bucket("user-1", Instant.parse("2024-01-10T09:00:00Z"), 6, "600.00"),
+                bucket("user-1", Instant.parse("2024-01-10T10:00:00Z"), 6, "600.00"));
+
+        FeaturePrefetcher.ActivityTotals totals = FeaturePrefetcher.windowTotals(buckets, since).get("user-1");
+
+        assertThat(totals.transactionCount()).isEqualTo(6);
+        assertThat(totals.totalAmount()).isEqualByComparingTo("610.00");
+    }
+
+    @Test
+    void countsBucketsInsideTheWindowWhole() {
+        Instant since = Instant.parse("2024-01-10T10:00:00Z");
+        List<UserActivityBucket> buckets = List.of(
+                bucket("user-1", Instant.parse("2024-01-10T10:00:00Z"), 7, "70.00"),
+                bucket("user-2", Instant.parse("2024-01-10T09:30:00Z"), 4, "40.00"));
+
+        Map<String, FeaturePrefetcher.ActivityTotals> totals = FeaturePrefetcher.windowTotals(buckets, since);
+
+        assertThat(totals.get("user-1").transactionCount()).isEqualTo(7);
+        assertThat(totals.get("user-2").transactionCount()).as("half of its hour is in the window").isEqualTo(2);
+        assertThat(totals.get("user-2").totalAmount()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void skipsAnonymousTransactions() {
+        List<FeatureSnapshot> snapshots = prefetcher.prefetch(List.of(event(null, "10.00")),
+                List.of(VelocityAggregator.NO_PARTITION));
+
+        assertThat(snapshots.get(0).isKnownUser()).isFalse();
+        verify(transactionRepository, never()).findActivityBucketsByUsersSince(anyCollection(), any());
+    }
+
+    private static TransactionEvent event(String userId, String amount) {
+        return TransactionEvent.builder()
+                .transactionId("TXN-1")
+                .userId(userId)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    private static UserActivityBucket bucket(String userId, Instant start, long count, String amount) {
+        return new UserActivityBucket() {
+            @Override
+            public String getUserId() {
+                return userId;
+            }
+
+            @Override
+            public Long getBucketStartEpochSecond() {
+                return start.getEpochSecond();
+            }
+
+            @Override
+            public Long getTransactionCount() {
+                return count;
+            }
+
+            @Override
+            public BigDecimal getTotalAmount() {
+                return new BigDecimal(amount);
+            }
+        };
+    }
+}
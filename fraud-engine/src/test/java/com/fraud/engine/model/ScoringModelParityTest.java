@@ -0,0 +1,53 @@
+package com.fraud.engine.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks in-process scores against the probabilities sklearn produced for
+ * the parity rows that train_model.py exports with the model.
+ */
+class ScoringModelParityTest {
+
+    private static final Path TRAINED_MODEL = Path.of("../ml-model-service/model/fraud_model.json");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void comparesWidenedFeatureAgainstDoubleThreshold() throws Exception {
+        // The first split sits halfway between two adjacent float32 values and
+        // rounds up onto the larger one, which sklearn still sends right
+        assertParity(Path.of(getClass().getResource("/model/threshold_boundary_model.json").toURI()));
+    }
+
+    @Test
+    void matchesScoresExportedByTrainModel() throws Exception {
+        assumeTrue(Files.exists(TRAINED_MODEL), "Run ml-model-service/train_model.py to export a model");
+        assertParity(TRAINED_MODEL);
+    }
+
+    private void assertParity(Path path) throws IOException {
+        JsonNode parity = objectMapper.readTree(path.toFile()).get("parity");
+        assumeTrue(parity != null, "Model was exported without parity rows");
+        ScoringModel model = ScoringModelLoader.load(objectMapper, path);
+
+        JsonNode rows = parity.get("features");
+        JsonNode probabilities = parity.get("probabilities");
+        assertThat(rows.size()).isPositive().isEqualTo(probabilities.size());
+        for (int r = 0; r < rows.size(); r++) {
+            double[] features = objectMapper.convertValue(rows.get(r), double[].class);
+            assertThat(model.score(features))
+                    .as("row %d", r)
+                    .isCloseTo(probabilities.get(r).asDouble(), within(1e-9));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.fraud.engine.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PgBinaryCopyEncoderTest {
+
+    private static final int HEADER_LENGTH = 19;
+
+    @Test
+    void writesNumericDigitGroups() throws IOException {
+        // Expected values as produced by PostgreSQL's numeric_send
+        assertNumeric("12345.678", 1, 0x0000, 3, 1, 2345, 6780);
+        assertNumeric("-1.5", 0, 0x4000, 1, 1, 5000);
+        assertNumeric("0.0001", -1, 0x0000, 4, 1);
+        assertNumeric("10000", 1, 0x0000, 0, 1);
+        assertNumeric("99999999.9999", 1, 0x0000, 4, 9999, 9999, 9999);
+        assertNumeric("0.00", 0, 0x0000, 2);
+        assertNumeric("0", 0, 0x0000, 0);
+    }
+
+    @Test
+    void writesNegativeScaleAsInteger() throws IOException {
+        assertNumeric(new BigDecimal("1E+3"), 0, 0x0000, 0, 1000);
+    }
+
+    @Test
+    void roundTripsNumeric() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000; i++) {
+            BigDecimal magnitude = new BigDecimal(new BigInteger(60, random), random.nextInt(12));
+            BigDecimal value = random.nextBoolean() ? magnitude.negate() : magnitude;
+
+            DataInputStream in = field(encoder -> encoder.writeNumeric(value));
+            assertThat(in.readInt()).isPositive();
+            assertThat(decodeNumeric(in)).isEqualTo(value);
+        }
+    }
+
+    @Test
+    void writesNullAsMinusOneLength() throws IOException {
+        assertThat(field(encoder -> encoder.writeNumeric(null)).readInt()).isEqualTo(-1);
+        assertThat(field(encoder -> encoder.writeText(null)).readInt()).isEqualTo(-1);
+    }
+
+    @Test
+    void writesTimestampAsMicrosSincePostgresEpoch() throws IOException {
+        DataInputStream in = field(encoder -> encoder.writeTimestamp(Instant.parse("2000-01-02T00:00:00.000123Z")));
+
+        assertThat(in.readInt()).isEqualTo(8);
+        assertThat(in.readLong()).isEqualTo(86_400_000_000L + 123);
+    }
+
+    private static void assertNumeric(String value, int weight, int sign, int scale, int... digits) throws IOException {
+        assertNumeric(new BigDecimal(value), weight, sign, scale, digits);
+    }
+
+    private static void assertNumeric(BigDecimal value, int weight, int sign, int scale, int... digits)
+            throws IOException {
+        DataInputStream in = field(encoder -> encoder.writeNumeric(value));
+
+        assertThat(in.readInt()).isEqualTo(8 + 2 * digits.length);
+        assertThat(in.readShort()).isEqualTo((short) digits.length);
+        assertThat(in.readShort()).isEqualTo((short) weight);
+        assertThat(in.readShort()).isEqualTo((short) sign);
+        assertThat(in.readShort()).isEqualTo((short) scale);
+        for (int digit : digits) {
+            assertThat(in.readShort()).isEqualTo((short) digit);
+        }
+    }
+
+    private static BigDecimal decodeNumeric(DataInputStream in) throws IOException {
+        int ndigits = in.readShort();
+        int weight = in.readShort();
+        int sign = in.readShort();
+        int scale = in.readShort();
+
+        BigDecimal value = BigDecimal.ZERO;
+        for (int i = 0; i < ndigits; i++) {
+            BigDecimal group = BigDecimal.valueOf(in.readShort());
+            value = value.add(group.scaleByPowerOfTen(4 * (weight - i)));
+        }
+        value = value.setScale(scale);
+        return sign == 0x4000 ? value.negate() : value;
+    }
+
+    private static DataInputStream field(FieldWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PgBinaryCopyEncoder encoder = new PgBinaryCopyEncoder(bytes);
+        writer.write(encoder);
+        encoder.finish();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        in.skipNBytes(HEADER_LENGTH);
+        return in;
+    }
+
+    @FunctionalInterface
+    private interface FieldWriter {
+        void write(PgBinaryCopyEncoder encoder) throws IOException;
+    }
+}
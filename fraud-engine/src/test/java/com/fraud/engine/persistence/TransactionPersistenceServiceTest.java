@@ -0,0 +1,80 @@
+package com.fraud.engine.persistence;
+
+import com.fraud.common.dto.FraudResult;
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.cache.UserProfileCache;
+import com.fraud.engine.entity.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TransactionPersistenceServiceTest {
+
+    private final TransactionPersistenceService service = new TransactionPersistenceService(
+            mock(TransactionWriter.class), mock(UserProfileWriter.class),
+            mock(UserActivityWriter.class), mock(UserProfileCache.class));
+
+    {
+        ReflectionTestUtils.setField(service, "maxFutureSkew", Duration.ofMinutes(5));
+    }
+
+    private static final Instant RECEIVED_AT = Instant.parse("2024-01-10T12:00:00Z");
+
+    @Test
+    void keepsEventTimeWithinClockSkew() {
+        Instant timestamp = RECEIVED_AT.plusSeconds(60);
+
+        Transaction transaction = service.persist(event(timestamp), result());
+
+        assertThat(transaction.getCreatedAt()).isEqualTo(timestamp);
+    }
+
+    @Test
+    void replacesFarFutureEventTimeWithReceiveTime() {
+        Transaction transaction = service.persist(event(RECEIVED_AT.plus(Duration.ofDays(400))), result());
+
+        assertThat(transaction.getCreatedAt()).isEqualTo(RECEIVED_AT);
+    }
+
+    @Test
+    void replacesMissingEventTimeWithReceiveTime() {
+        Transaction transaction = service.persist(event(null), result());
+
+        assertThat(transaction.getCreatedAt()).isEqualTo(RECEIVED_AT);
+    }
+
+    @Test
+    void keepsCreatedAtAcrossRedeliveries() {
+        Transaction first = service.persist(event(null), result());
+        Transaction redelivered = service.persist(event(null), result());
+
+        assertThat(redelivered.getCreatedAt()).isEqualTo(first.getCreatedAt());
+    }
+
+    private static TransactionEvent event(Instant timestamp) {
+        return TransactionEvent.builder()
+                .transactionId("TXN-1")
+                .userId("USR-1")
+                .amount(new BigDecimal("10.00"))
+                .currency("USD")
+                .timestamp(timestamp)
+                .receivedAt(RECEIVED_AT)
+                .build();
+    }
+
+    private static FraudResult result() {
+        return FraudResult.builder()
+                .transactionId("TXN-1")
+                .fraudScore(BigDecimal.ZERO)
+                .triggeredRules(List.of())
+                .processingTimeMs(1L)
+                .build();
+    }
+}
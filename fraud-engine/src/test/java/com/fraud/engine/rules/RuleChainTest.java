@@ -0,0 +1,86 @@
+package com.fraud.engine.rules;
+
+import com.fraud.common.dto.FraudAlert;
+import com.fraud.common.dto.FraudResult;
+import com.fraud.common.dto.ReasonCode;
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.feature.FeatureSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RuleChainTest {
+
+    private static final TransactionEvent EVENT = TransactionEvent.builder()
+            .transactionId("TXN-1")
+            .userId("user-1")
+            .build();
+
+    private final StubRule capping = new StubRule("CAP", 1, RiskScores.MAX);
+    private final StubRule other = new StubRule("OTHER", 2, 2_000);
+    private final StubRule location = new StubRule("RULE_005", 3, 2_000);
+
+    @Test
+    void skipsRulesOnceScoreIsCapped() {
+        FraudResult result = chain(capping, other, location).executeRules(EVENT, FeatureSnapshot.anonymous("user-1"));
+
+        assertThat(other.evaluations()).isZero();
+        assertThat(result.getFraudScore()).isEqualByComparingTo("1.0");
+        assertThat(result.getRuleDetails())
+                .filteredOn(evaluation -> evaluation.getRuleId().equals("OTHER"))
+                .singleElement()
+                .satisfies(evaluation -> {
+                    assertThat(evaluation.isEvaluated()).isFalse();
+                    assertThat(evaluation.getReasons().get(0).getCode()).isEqualTo(ReasonCode.RULE_SKIPPED);
+                });
+    }
+
+    @Test
+    void evaluatesAlertTypeRulesWhileNoneHasTriggered() {
+        RuleChain chain = chain(capping, other, location);
+
+        FraudResult result = chain.executeRules(EVENT, FeatureSnapshot.anonymous("user-1"));
+
+        assertThat(location.evaluations()).isEqualTo(1);
+        assertThat(result.getTriggeredRules()).containsExactly("CAP", "RULE_005");
+        assertThat(chain.alertType(result.getTriggeredRules())).isEqualTo(FraudAlert.AlertType.LOCATION_ANOMALY);
+    }
+
+    @Test
+    void skipsAlertTypeRulesOutrankedByTriggeredRule() {
+        StubRule highAmount = new StubRule("RULE_001", 2, 2_000);
+        StubRule velocity = new StubRule("RULE_003", 4, 2_000);
+        RuleChain chain = chain(capping, highAmount, location, velocity);
+
+        FraudResult result = chain.executeRules(EVENT, FeatureSnapshot.anonymous("user-1"));
+
+        assertThat(location.evaluations()).isZero();
+        assertThat(velocity.evaluations()).isZero();
+        assertThat(result.getTriggeredRules()).containsExactly("CAP", "RULE_001");
+        assertThat(chain.alertType(result.getTriggeredRules())).isEqualTo(FraudAlert.AlertType.HIGH_AMOUNT);
+    }
+
+    @Test
+    void alertTypeFollowsRulePrecedence() {
+        RuleChain chain = chain();
+
+        assertThat(chain.alertType(List.of("RULE_005", "RULE_003"))).isEqualTo(FraudAlert.AlertType.VELOCITY_BREACH);
+        assertThat(chain.alertType(List.of("RULE_003", "RULE_001"))).isEqualTo(FraudAlert.AlertType.HIGH_AMOUNT);
+        assertThat(chain.alertType(List.of("RULE_007"))).isEqualTo(FraudAlert.AlertType.RULE_BASED);
+    }
+
+    private static RuleChain chain(Rule... rules) {
+        RuleConfigLoader loader = mock(RuleConfigLoader.class);
+        when(loader.current()).thenReturn(RuleSet.EMPTY);
+        RuleBulkheads bulkheads = new RuleBulkheads(false, 50, 1, 1, new SimpleMeterRegistry());
+
+        RuleChain chain = new RuleChain(List.of(rules), bulkheads, loader);
+        chain.compile();
+        return chain;
+    }
+}
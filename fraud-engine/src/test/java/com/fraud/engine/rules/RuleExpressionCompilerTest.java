@@ -0,0 +1,117 @@
+package com.fraud.engine.rules;
+
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.feature.FeatureSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RuleExpressionCompilerTest {
+
+    private static final TransactionEvent EVENT = TransactionEvent.builder()
+            .transactionId("TXN-1")
+            .userId("user-1")
+            .amount(new BigDecimal("1500.00"))
+            .currency("USD")
+            .merchantCategory("GAMBLING")
+            .channel("ONLINE")
+            .ipAddress("10.0.0.2")
+            .timestamp(Instant.parse("2024-01-13T02:30:00Z"))
+            .build();
+
+    private static final FeatureSnapshot FEATURES = FeatureSnapshot.builder()
+            .userId("user-1")
+            .knownUser(true)
+            .lastKnownIp("10.0.0.1")
+            .transactionCountLastHour(4)
+            .transactionAmountLast24h(new BigDecimal("2000.00"))
+            .build();
+
+    @Test
+    void evaluatesArithmeticWithPrecedence() {
+        assertThat(test("amount > 1000 + 2 * 200")).isTrue();
+        assertThat(test("(amount - 500) / 2 == 500")).isTrue();
+        assertThat(test("-amount < -1499")).isTrue();
+        assertThat(test("amount + amountLast24h >= 3500.5")).isFalse();
+    }
+
+    @Test
+    void evaluatesBooleanOperatorsAndFields() {
+        assertThat(test("knownUser && ipChanged")).isTrue();
+        assertThat(test("NOT knownUser OR transactionsLastHour >= 4")).isTrue();
+        assertThat(test("!(weekend AND nightTime)")).isFalse();
+        assertThat(test("true && false || true")).isTrue();
+    }
+
+    @Test
+    void comparesTextFields() {
+        assertThat(test("currency == 'USD'")).isTrue();
+        assertThat(test("'ONLINE' != channel")).isFalse();
+        assertThat(test("deviceId == 'D-1'")).isFalse();
+    }
+
+    @Test
+    void foldsInThreshold() {
+        RuleExpressionCompiler.Condition condition =
+                RuleExpressionCompiler.compile("amount >= threshold", new BigDecimal("1500")).condition();
+
+        assertThat(condition.test(EVENT, FEATURES)).isTrue();
+    }
+
+    @Test
+    void reportsConjunctiveEqualitiesAsPreconditions() {
+        assertThat(preconditions("merchantCategory == 'GAMBLING' && amount > 100 AND 'EUR' == currency"))
+                .containsExactlyInAnyOrderEntriesOf(Map.of(
+                        RuleAttribute.MERCHANT_CATEGORY, "GAMBLING",
+                        RuleAttribute.CURRENCY, "EUR"));
+    }
+
+    @Test
+    void ignoresEqualitiesThatAreNotRequired() {
+        assertThat(preconditions("merchantCategory == 'GAMBLING' || amount > 100")).isEmpty();
+        assertThat(preconditions("!(channel == 'ONLINE')")).isEmpty();
+        assertThat(preconditions("channel != 'ONLINE'")).isEmpty();
+        assertThat(preconditions("userId == 'user-1'")).isEmpty();
+    }
+
+    @Test
+    void rejectsInvalidExpressions() {
+        assertInvalid("amount", "Expression does not evaluate to true or false");
+        assertInvalid("amount > ", "Unexpected end of expression at position 9");
+        assertInvalid("unknownField > 1", "Unknown field 'unknownField' at position 0");
+        assertInvalid("currency > 'USD'", "Text can only be compared with == or !=");
+        assertInvalid("(amount > 1", "Expected ')'");
+        assertInvalid("amount > 1 amount", "Unexpected 'amount' at position 11");
+        assertInvalid("channel == 'ONLINE", "Unterminated text at position 11");
+        assertInvalid("amount > 1.2.3", "Invalid number '1.2.3' at position 9");
+        assertInvalid("amount # 1", "Unexpected character '#' at position 7");
+        assertInvalid("knownUser + 1 > 0", "'+' needs a number");
+        assertInvalid("amount && knownUser", "'&&' needs a condition");
+    }
+
+    @Test
+    void rejectsThresholdWithoutThresholdValue() {
+        assertThatThrownBy(() -> RuleExpressionCompiler.compile("amount > threshold", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("the rule has no threshold_value");
+    }
+
+    private static boolean test(String expression) {
+        return RuleExpressionCompiler.compile(expression, null).condition().test(EVENT, FEATURES);
+    }
+
+    private static Map<RuleAttribute, String> preconditions(String expression) {
+        return RuleExpressionCompiler.compile(expression, null).preconditions();
+    }
+
+    private static void assertInvalid(String expression, String message) {
+        assertThatThrownBy(() -> RuleExpressionCompiler.compile(expression, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(message);
+    }
+}
@@ -0,0 +1,80 @@
+package com.fraud.engine.rules;
+
+import com.fraud.common.dto.TransactionEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RulePlanTest {
+
+    private static final TransactionEvent EVENT = TransactionEvent.builder()
+            .transactionId("TXN-1")
+            .merchantId("M-1")
+            .merchantCategory("GAMBLING")
+            .channel("ONLINE")
+            .build();
+
+    @Test
+    void startsInPriorityOrder() {
+        RulePlan plan = RulePlan.byPriority(List.of(
+                new StubRule("C", 3, 0), new StubRule("A", 1, 0), new StubRule("B", 2, 0)));
+
+        assertThat(plan.ruleIds()).containsExactly("A", "B", "C");
+    }
+
+    @Test
+    void keepsOrderUntilEnoughSamples() {
+        RulePlan plan = RulePlan.byPriority(List.of(new StubRule("A", 1, 0), new StubRule("B", 2, 0)));
+        plan.stats(1).record(10, true, 5_000);
+
+        assertThat(plan.reordered(2)).isSameAs(plan);
+    }
+
+    @Test
+    void reordersByScorePerNanosecond() {
+        RulePlan plan = RulePlan.byPriority(List.of(
+                new StubRule("CHEAP_MISS", 1, 0),
+                new StubRule("SLOW_HIT", 2, 0),
+                new StubRule("FAST_HIT", 3, 0)));
+        for (int n = 0; n < 10; n++) {
+            plan.stats(0).record(100, false, 0);
+            plan.stats(1).record(10_000, true, 5_000);
+            plan.stats(2).record(100, true, 5_000);
+        }
+
+        RulePlan reordered = plan.reordered(10);
+
+        assertThat(reordered.ruleIds()).containsExactly("FAST_HIT", "SLOW_HIT", "CHEAP_MISS");
+        assertThat(reordered.reordered(10)).as("statistics start fresh").isSameAs(reordered);
+    }
+
+    @Test
+    void breaksTiesByCostThenPriority() {
+        RulePlan plan = RulePlan.byPriority(List.of(
+                new StubRule("EXPENSIVE", 1, 0), new StubRule("LATE", 3, 0), new StubRule("EARLY", 2, 0)));
+        plan.stats(0).record(1_000, false, 0);
+        plan.stats(1).record(10, false, 0);
+        plan.stats(2).record(10, false, 0);
+
+        assertThat(plan.reordered(1).ruleIds()).containsExactly("EARLY", "LATE", "EXPENSIVE");
+    }
+
+    @Test
+    void selectsIndexedRulesByPrecondition() {
+        RulePlan plan = RulePlan.byPriority(List.of(
+                new StubRule("ANY", 1, 0),
+                new StubRule("GAMBLING", 2, 0, Map.of(RuleAttribute.MERCHANT_CATEGORY, "GAMBLING")),
+                new StubRule("TRAVEL", 3, 0, Map.of(RuleAttribute.MERCHANT_CATEGORY, "TRAVEL")),
+                new StubRule("M1_POS", 4, 0,
+                        Map.of(RuleAttribute.MERCHANT_ID, "M-1", RuleAttribute.CHANNEL, "POS"))));
+
+        int[] candidates = plan.candidates(EVENT);
+
+        assertThat(Arrays.stream(candidates).mapToObj(i -> plan.rule(i).getRuleId()))
+                .containsExactly("ANY", "GAMBLING", "M1_POS");
+    }
+}
@@ -0,0 +1,72 @@
+package com.fraud.engine.rules;
+
+import com.fraud.common.dto.FraudResult;
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.engine.feature.FeatureSnapshot;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rule with a fixed outcome that counts its evaluations.
+ */
+class StubRule implements Rule {
+
+    private final String ruleId;
+    private final int priority;
+    private final int score;
+    private final Map<RuleAttribute, String> preconditions;
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    StubRule(String ruleId, int priority, int score) {
+        this(ruleId, priority, score, Map.of());
+    }
+
+    StubRule(String ruleId, int priority, int score, Map<RuleAttribute, String> preconditions) {
+        this.ruleId = ruleId;
+        this.priority = priority;
+        this.score = score;
+        this.preconditions = preconditions;
+    }
+
+    int evaluations() {
+        return evaluations.get();
+    }
+
+    @Override
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    @Override
+    public String getRuleName() {
+        return ruleId;
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public Map<RuleAttribute, String> getPreconditions() {
+        return preconditions;
+    }
+
+    @Override
+    public FraudResult.RuleEvaluation evaluate(TransactionEvent event, FeatureSnapshot features,
+                                               FraudResult.FraudResultBuilder resultBuilder) {
+        evaluations.incrementAndGet();
+        return FraudResult.RuleEvaluation.builder()
+                .ruleId(ruleId)
+                .ruleName(ruleId)
+                .triggered(score > 0)
+                .score(RiskScores.toDecimal(score))
+                .build();
+    }
+}
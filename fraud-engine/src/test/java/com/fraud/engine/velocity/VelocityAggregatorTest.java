@@ -0,0 +1,57 @@
+package com.fraud.engine.velocity;
+
+import com.fraud.common.dto.TransactionEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VelocityAggregatorTest {
+
+    private static final Duration HOUR = Duration.ofHours(1);
+
+    private final VelocityAggregator aggregator = new VelocityAggregator(
+            List.of(Duration.ofMinutes(1), HOUR), 12, new SimpleMeterRegistry());
+
+    @Test
+    void countsTransactionsPerUser() {
+        aggregator.record(event("user-1", "10.00"));
+        aggregator.record(event("user-1", "15.50"));
+        aggregator.record(event("user-2", "1.00"));
+
+        assertThat(aggregator.getCount(VelocityDimension.USER, "user-1", HOUR)).isEqualTo(2);
+        assertThat(aggregator.getAmount(VelocityDimension.USER, "user-1", HOUR)).isEqualByComparingTo("25.50");
+        assertThat(aggregator.getCount(VelocityDimension.USER, "unknown", HOUR)).isZero();
+    }
+
+    @Test
+    void coversOnlyPartitionsOwnedForTheWholeWindow() {
+        aggregator.partitionsAssigned(List.of(0, 1));
+
+        assertThat(aggregator.covers(Duration.ZERO, 0)).isTrue();
+        assertThat(aggregator.covers(HOUR, 0)).as("assigned just now").isFalse();
+        assertThat(aggregator.covers(Duration.ZERO, 2)).as("not assigned").isFalse();
+        assertThat(aggregator.covers(Duration.ZERO, VelocityAggregator.NO_PARTITION)).isFalse();
+    }
+
+    @Test
+    void forgetsRevokedPartitions() {
+        aggregator.partitionsAssigned(List.of(0, 1));
+        aggregator.partitionsRevoked(List.of(1));
+
+        assertThat(aggregator.covers(Duration.ZERO, 0)).isTrue();
+        assertThat(aggregator.covers(Duration.ZERO, 1)).isFalse();
+    }
+
+    private static TransactionEvent event(String userId, String amount) {
+        return TransactionEvent.builder()
+                .transactionId("TXN-" + userId)
+                .userId(userId)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.fraud.ingestion.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.common.exception.ValidationException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of validating one transaction with the scanner-based validator,
+ * against the Bean Validation pass the endpoints used to run on top of it.
+ *
+ * Run with -prof gc; a valid event should show close to zero gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionValidatorBenchmark {
+
+    private TransactionValidatorService validatorService;
+    private ValidatorFactory validatorFactory;
+    private Validator beanValidator;
+    private TransactionEvent validEvent;
+    private TransactionEvent invalidEvent;
+
+    @Setup
+    public void setUp() {
+        // Measure validation, not console logging
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.ERROR);
+
+        validatorService = new TransactionValidatorService();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = validatorFactory.getValidator();
+
+        validEvent = TransactionEvent.builder()
+                .transactionId("TXN-1")
+                .amount(new BigDecimal("125.50"))
+                .currency("USD")
+                .userId("USER_001")
+                .merchantId("MERCH-1")
+                .merchantName("Coffee Shop")
+                .location("New York, US")
+                .ipAddress("192.168.1.10")
+                .latitude(40.7)
+                .longitude(-74.0)
+                .cardLastFour("4242")
+                .timestamp(Instant.parse("2024-01-10T12:00:00Z"))
+                .build();
+        invalidEvent = TransactionEvent.builder()
+                .transactionId("TXN-2")
+                .amount(new BigDecimal("0.001"))
+                .currency("usd")
+                .userId("user@example")
+                .cardLastFour("12a4")
+                .timestamp(Instant.parse("2024-01-10T12:00:00Z"))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public TransactionEvent scannerValid() {
+        validatorService.validateTransaction(validEvent);
+        return validEvent;
+    }
+
+    @Benchmark
+    public List<String> scannerInvalid() {
+        try {
+            validatorService.validateTransaction(invalidEvent);
+            return List.of();
+        } catch (ValidationException e) {
+            return e.getValidationErrors();
+        }
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<TransactionEvent>> beanValidationValid() {
+        return beanValidator.validate(validEvent);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<TransactionEvent>> beanValidationInvalid() {
+        return beanValidator.validate(invalidEvent);
+    }
+}
@@ -2,6 +2,9 @@ package com.fraud.ingestion.controller;
 
 import com.fraud.common.dto.ApiResponse;
 import com.fraud.common.dto.TransactionEvent;
+import com.fraud.ingestion.dto.BatchIngestionResult;
+import com.fraud.ingestion.dto.StreamIngestionResult;
+import com.fraud.ingestion.service.StreamIngestionService;
 import com.fraud.ingestion.service.TransactionIngestionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -9,22 +12,25 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Transaction Controller.
  * 
  * REST API endpoints for transaction ingestion into the
- * fraud detection pipeline.
+ * fraud detection pipeline. Request bodies are validated by
+ * TransactionValidatorService in the ingestion path rather than by @Valid.
  */
 @RestController
 @RequestMapping("/api/v1/transactions")
@@ -34,12 +40,16 @@ import java.util.Map;
 public class TransactionController {
 
     private final TransactionIngestionService ingestionService;
+    private final StreamIngestionService streamIngestionService;
 
     /**
      * Ingest a single transaction.
      *
+     * The request thread is released while the record is sent; the response
+     * is completed from the send callback once the broker acknowledged it.
+     *
      * @param event The transaction event
-     * @return Response with ingested transaction
+     * @return Future of the response with ingested transaction
      */
     @PostMapping(
             consumes = MediaType.APPLICATION_JSON_VALUE,
@@ -48,7 +58,8 @@ public class TransactionController {
     @Operation(
             summary = "Ingest a transaction",
             description = "Submit a financial transaction for fraud detection analysis. " +
-                    "The transaction will be validated and published to the fraud detection pipeline."
+                    "The transaction will be validated and published to the fraud detection pipeline; " +
+                    "the response is sent once the broker has acknowledged it."
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -67,20 +78,17 @@ public class TransactionController {
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))
             )
     })
-    public ResponseEntity<ApiResponse<TransactionEvent>> ingestTransaction(
-            @Valid @RequestBody TransactionEvent event) {
+    public CompletableFuture<ResponseEntity<ApiResponse<TransactionEvent>>> ingestTransaction(
+            @RequestBody TransactionEvent event) {
         
         log.info("Received transaction ingestion request: {}", 
                 event.getTransactionId() != null ? event.getTransactionId() : "NEW");
 
-        TransactionEvent ingestedEvent = ingestionService.ingestTransaction(event);
-
-        ApiResponse<TransactionEvent> response = ApiResponse.accepted(
-                ingestedEvent,
-                "Transaction accepted for fraud detection processing"
-        );
-
-        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        return ingestionService.ingestTransactionAcknowledged(event)
+                .thenApply(ingestedEvent -> ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.accepted(
+                        ingestedEvent,
+                        "Transaction accepted for fraud detection processing"
+                )));
     }
 
     /**
@@ -97,7 +105,8 @@ public class TransactionController {
     @Operation(
             summary = "Ingest transactions in batch",
             description = "Submit multiple transactions for fraud detection analysis. " +
-                    "Each transaction will be validated and published independently."
+                    "Each transaction is validated and published independently; " +
+                    "the response reports the status of every item."
     )
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -112,16 +121,17 @@ public class TransactionController {
             )
     })
     public ResponseEntity<ApiResponse<Map<String, Object>>> ingestBatch(
-            @Valid @RequestBody List<TransactionEvent> events) {
+            @RequestBody List<TransactionEvent> events) {
         
         log.info("Received batch ingestion request with {} transactions", events.size());
 
-        List<TransactionEvent> ingestedEvents = ingestionService.ingestBatch(events);
+        BatchIngestionResult result = ingestionService.ingestBatch(events);
 
         Map<String, Object> responseData = Map.of(
                 "totalReceived", events.size(),
-                "successfullyIngested", ingestedEvents.size(),
-                "transactions", ingestedEvents
+                "successfullyIngested", result.getAcceptedCount(),
+                "transactions", result.getAcceptedEvents(),
+                "results", result.getItems()
         );
 
         ApiResponse<Map<String, Object>> response = ApiResponse.accepted(
@@ -132,6 +142,42 @@ public class TransactionController {
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
 
+    /**
+     * Ingest a stream of newline-delimited JSON transactions.
+     *
+     * @param contentEncoding Content-Encoding of the body; gzip is supported
+     * @param body            The request body
+     * @return Summary of the ingestion
+     */
+    @PostMapping(
+            path = "/stream",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    @Operation(
+            summary = "Ingest an NDJSON stream of transactions",
+            description = "Submit one JSON transaction per line, optionally gzip-compressed. " +
+                    "Records are validated and published as they are read; the response summarizes " +
+                    "the outcome and lists the lines that were not accepted."
+    )
+    public ResponseEntity<ApiResponse<StreamIngestionResult>> ingestStream(
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) {
+
+        log.info("Received stream ingestion request");
+
+        StreamIngestionResult result = streamIngestionService.ingest(body, "gzip".equalsIgnoreCase(contentEncoding));
+
+        ApiResponse<StreamIngestionResult> response = ApiResponse.accepted(
+                result,
+                result.getAbortReason() == null
+                        ? "Stream accepted for fraud detection processing"
+                        : "Stream partially accepted: " + result.getAbortReason()
+        );
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
     /**
      * Ingest a transaction asynchronously (fire and forget).
      *
@@ -149,7 +195,7 @@ public class TransactionController {
                     "Returns immediately after validation without waiting for Kafka acknowledgment."
     )
     public ResponseEntity<ApiResponse<Map<String, String>>> ingestTransactionAsync(
-            @Valid @RequestBody TransactionEvent event) {
+            @RequestBody TransactionEvent event) {
         
         log.info("Received async transaction ingestion request: {}", 
                 event.getTransactionId() != null ? event.getTransactionId() : "NEW");
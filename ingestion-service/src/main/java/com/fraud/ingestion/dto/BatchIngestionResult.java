@@ -0,0 +1,87 @@
+package com.fraud.ingestion.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fraud.common.dto.TransactionEvent;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * BatchIngestionResult DTO - Outcome of a batch ingestion, item by item.
+ *
+ * Items are listed in request order, each with its own status.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchIngestionResult {
+
+    @JsonProperty("items")
+    private List<ItemResult> items;
+
+    @JsonProperty("accepted")
+    public long getAcceptedCount() {
+        return items.stream().filter(item -> item.getStatus() == ItemStatus.ACCEPTED).count();
+    }
+
+    /**
+     * The events that were published.
+     */
+    @JsonIgnore
+    public List<TransactionEvent> getAcceptedEvents() {
+        return items.stream()
+                .filter(item -> item.getStatus() == ItemStatus.ACCEPTED)
+                .map(ItemResult::getEvent)
+                .toList();
+    }
+
+    /**
+     * Outcome of one item of the batch.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ItemResult {
+
+        /**
+         * Position of the item in the request
+         */
+        @JsonProperty("index")
+        private int index;
+
+        @JsonProperty("transactionId")
+        private String transactionId;
+
+        @JsonProperty("status")
+        private ItemStatus status;
+
+        /**
+         * Why the item was rejected or failed
+         */
+        @JsonProperty("errors")
+        private List<String> errors;
+
+        @JsonProperty("partition")
+        private Integer partition;
+
+        @JsonProperty("offset")
+        private Long offset;
+
+        @JsonIgnore
+        private TransactionEvent event;
+    }
+
+    public enum ItemStatus {
+        /** Published and acknowledged by the broker */
+        ACCEPTED,
+        /** Failed validation, not published */
+        REJECTED,
+        /** Valid, but publishing failed or was not acknowledged in time */
+        FAILED
+    }
+}
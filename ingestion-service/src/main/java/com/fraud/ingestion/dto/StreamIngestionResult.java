@@ -0,0 +1,83 @@
+package com.fraud.ingestion.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * StreamIngestionResult DTO - Summary of an NDJSON stream ingestion.
+ *
+ * Counts every record instead of echoing it; only records that were not
+ * accepted are listed, by line, up to a limit.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StreamIngestionResult {
+
+    /**
+     * Records read from the stream
+     */
+    @JsonProperty("records")
+    private long records;
+
+    @JsonProperty("accepted")
+    private long accepted;
+
+    @JsonProperty("rejected")
+    private long rejected;
+
+    @JsonProperty("failed")
+    private long failed;
+
+    /**
+     * Records sent but not acknowledged before the response was built
+     */
+    @JsonProperty("unacknowledged")
+    private long unacknowledged;
+
+    @JsonProperty("errors")
+    private List<LineError> errors;
+
+    /**
+     * Whether more records failed than are listed in errors
+     */
+    @JsonProperty("errorsTruncated")
+    private boolean errorsTruncated;
+
+    /**
+     * Why reading stopped before the end of the stream, if it did
+     */
+    @JsonProperty("abortReason")
+    private String abortReason;
+
+    /**
+     * A record that was rejected or failed to publish.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class LineError {
+
+        /**
+         * Line of the stream the record starts on, from 1
+         */
+        @JsonProperty("line")
+        private long line;
+
+        @JsonProperty("transactionId")
+        private String transactionId;
+
+        @JsonProperty("status")
+        private BatchIngestionResult.ItemStatus status;
+
+        @JsonProperty("errors")
+        private List<String> errors;
+    }
+}
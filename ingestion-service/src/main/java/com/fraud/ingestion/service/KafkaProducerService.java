@@ -28,47 +28,64 @@ public class KafkaProducerService {
     private final KafkaTemplate<String, TransactionEvent> kafkaTemplate;
 
     /**
-     * Publish a transaction event to Kafka synchronously.
+     * Publish a transaction event to Kafka without blocking the caller.
+     * The returned future completes from the producer's send callback once
+     * the broker acknowledged the record.
      *
      * @param event The transaction event to publish
-     * @return The send result
-     * @throws MessagePublishException if publishing fails
+     * @return CompletableFuture with the send result, failed with MessagePublishException
      */
-    public SendResult<String, TransactionEvent> publishTransaction(TransactionEvent event) {
-        try {
-            // Set received timestamp if not already set
-            if (event.getReceivedAt() == null) {
-                event.setReceivedAt(Instant.now());
-            }
-
-            // Set source system
-            event.setSourceSystem("ingestion-service");
-
-            String key = event.getUserId() != null ? event.getUserId() : UUID.randomUUID().toString();
-            
-            log.info("Publishing transaction {} to Kafka topic {}", 
-                    event.getTransactionId(), KafkaConstants.TOPIC_TRANSACTION_EVENTS);
-
-            CompletableFuture<SendResult<String, TransactionEvent>> future = 
-                    kafkaTemplate.send(KafkaConstants.TOPIC_TRANSACTION_EVENTS, key, event);
-
-            SendResult<String, TransactionEvent> result = future.get();
-            
-            log.info("Successfully published transaction {} to partition {} at offset {}", 
-                    event.getTransactionId(),
-                    result.getRecordMetadata().partition(),
-                    result.getRecordMetadata().offset());
-
-            return result;
+    public CompletableFuture<SendResult<String, TransactionEvent>> publishTransactionAcknowledged(
+            TransactionEvent event) {
+        log.info("Publishing transaction {} to Kafka topic {}",
+                event.getTransactionId(), KafkaConstants.TOPIC_TRANSACTION_EVENTS);
 
+        CompletableFuture<SendResult<String, TransactionEvent>> acknowledged = new CompletableFuture<>();
+        try {
+            sendTransaction(event).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    log.error("Failed to publish transaction {} to Kafka: {}",
+                            event.getTransactionId(), ex.getMessage());
+                    acknowledged.completeExceptionally(new MessagePublishException(
+                            KafkaConstants.TOPIC_TRANSACTION_EVENTS,
+                            "Failed to publish transaction: " + event.getTransactionId(),
+                            ex));
+                } else {
+                    log.info("Successfully published transaction {} to partition {} at offset {}",
+                            event.getTransactionId(),
+                            result.getRecordMetadata().partition(),
+                            result.getRecordMetadata().offset());
+                    acknowledged.complete(result);
+                }
+            });
         } catch (Exception e) {
-            log.error("Failed to publish transaction {} to Kafka: {}", 
-                    event.getTransactionId(), e.getMessage(), e);
-            throw new MessagePublishException(
+            log.error("Failed to publish transaction {} to Kafka: {}", event.getTransactionId(), e.getMessage(), e);
+            acknowledged.completeExceptionally(new MessagePublishException(
                     KafkaConstants.TOPIC_TRANSACTION_EVENTS,
                     "Failed to publish transaction: " + event.getTransactionId(),
-                    e);
+                    e));
+        }
+        return acknowledged;
+    }
+
+    /**
+     * Hand a transaction event to the producer without waiting for the broker.
+     * Records sent back to back are batched by the producer according to its linger settings.
+     *
+     * @param event The transaction event to publish
+     * @return CompletableFuture completed when the broker acknowledges the record
+     */
+    public CompletableFuture<SendResult<String, TransactionEvent>> sendTransaction(TransactionEvent event) {
+        // Set received timestamp if not already set
+        if (event.getReceivedAt() == null) {
+            event.setReceivedAt(Instant.now());
         }
+
+        // Set source system
+        event.setSourceSystem("ingestion-service");
+
+        String key = event.getUserId() != null ? event.getUserId() : UUID.randomUUID().toString();
+        return kafkaTemplate.send(KafkaConstants.TOPIC_TRANSACTION_EVENTS, key, event);
     }
 
     /**
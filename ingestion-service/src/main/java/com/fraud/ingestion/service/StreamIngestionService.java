@@ -0,0 +1,238 @@
+package com.fraud.ingestion.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.common.exception.ValidationException;
+import com.fraud.ingestion.dto.BatchIngestionResult;
+import com.fraud.ingestion.dto.StreamIngestionResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Stream Ingestion Service.
+ *
+ * Ingests newline-delimited JSON record by record: each object is parsed
+ * from the stream with Jackson's streaming parser, validated, enriched and
+ * handed to the producer before the next one is read, so memory use does
+ * not grow with the size of the upload. At most max-in-flight records may
+ * await their broker acknowledgment; when the limit is reached, or the
+ * producer buffer is full, reading pauses until the broker catches up.
+ *
+ * A record that is not valid is rejected and reading continues. Malformed
+ * JSON ends the stream, since the parser cannot find the next record.
+ */
+@Service
+@Slf4j
+public class StreamIngestionService {
+
+    private final TransactionIngestionService ingestionService;
+    private final KafkaProducerService kafkaProducerService;
+    private final ObjectMapper objectMapper;
+    private final int maxInFlight;
+    private final long sendTimeoutMs;
+    private final int maxReportedErrors;
+
+    public StreamIngestionService(
+            TransactionIngestionService ingestionService,
+            KafkaProducerService kafkaProducerService,
+            ObjectMapper objectMapper,
+            @Value("${ingestion.stream.max-in-flight:10000}") int maxInFlight,
+            @Value("${ingestion.batch.send-timeout-ms:30000}") long sendTimeoutMs,
+            @Value("${ingestion.stream.max-reported-errors:100}") int maxReportedErrors) {
+        this.ingestionService = ingestionService;
+        this.kafkaProducerService = kafkaProducerService;
+        this.objectMapper = objectMapper;
+        this.maxInFlight = maxInFlight;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Ingest an NDJSON stream.
+     *
+     * @param body The request body
+     * @param gzip Whether the body is gzip-compressed
+     * @return Summary of the ingestion
+     */
+    public StreamIngestionResult ingest(InputStream body, boolean gzip) {
+        Tally tally = new Tally(maxReportedErrors);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        try (InputStream in = gzip ? new GZIPInputStream(body, 8192) : body;
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                long line = parser.currentTokenLocation().getLineNr();
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    tally.rejected(line, null, List.of("Expected a JSON object"));
+                    continue;
+                }
+                JsonNode record = objectMapper.readTree(parser);
+                if (!ingestRecord(record, line, tally, inFlight)) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Stream ingestion stopped: {}", e.getMessage());
+            tally.abort(e instanceof JsonProcessingException jpe && jpe.getLocation() != null
+                    ? "Malformed JSON at line " + jpe.getLocation().getLineNr() + ": " + jpe.getOriginalMessage()
+                    : "Failed to read request body: " + e.getMessage());
+        }
+
+        // Wait for the outstanding acknowledgments; permits are released after the tally is updated
+        try {
+            if (inFlight.tryAcquire(maxInFlight, sendTimeoutMs, TimeUnit.MILLISECONDS)) {
+                inFlight.release(maxInFlight);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        StreamIngestionResult result = tally.toResult();
+        log.info("Stream ingestion completed: {} records, {} accepted, {} rejected, {} failed, {} unacknowledged",
+                result.getRecords(), result.getAccepted(), result.getRejected(), result.getFailed(),
+                result.getUnacknowledged());
+        return result;
+    }
+
+    /**
+     * Validate and publish one record.
+     *
+     * @return false if reading should stop
+     */
+    private boolean ingestRecord(JsonNode record, long line, Tally tally, Semaphore inFlight) {
+        TransactionEvent event;
+        try {
+            event = objectMapper.treeToValue(record, TransactionEvent.class);
+            ingestionService.validateAndEnrich(event);
+        } catch (JsonProcessingException e) {
+            tally.rejected(line, null, List.of("Invalid record: " + e.getOriginalMessage()));
+            return true;
+        } catch (ValidationException e) {
+            tally.rejected(line, record.path("transactionId").asText(null), e.getValidationErrors());
+            return true;
+        }
+
+        try {
+            if (!inFlight.tryAcquire(sendTimeoutMs, TimeUnit.MILLISECONDS)) {
+                tally.abort("Timed out waiting for the broker to acknowledge earlier records");
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            tally.abort("Interrupted");
+            return false;
+        }
+
+        tally.sent();
+        try {
+            // Blocks while the producer buffer is full
+            kafkaProducerService.sendTransaction(event).whenComplete((sendResult, ex) -> {
+                try {
+                    if (ex != null) {
+                        tally.failed(line, event.getTransactionId(), ex);
+                    } else {
+                        tally.accepted();
+                    }
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (Exception e) {
+            try {
+                tally.failed(line, event.getTransactionId(), e);
+            } finally {
+                inFlight.release();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts of one ingestion; updated by the reading thread and the producer callbacks.
+     * Every sent record is pending until its callback reports it accepted or failed,
+     * so a summary taken while acknowledgments are outstanding still adds up.
+     */
+    private static final class Tally {
+        private final int maxReportedErrors;
+        private final List<StreamIngestionResult.LineError> errors = new ArrayList<>();
+        private long records;
+        private long accepted;
+        private long rejected;
+        private long failed;
+        private long pending;
+        private String abortReason;
+
+        Tally(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        synchronized void sent() {
+            pending++;
+        }
+
+        synchronized void accepted() {
+            pending--;
+            records++;
+            accepted++;
+        }
+
+        synchronized void rejected(long line, String transactionId, List<String> reasons) {
+            records++;
+            rejected++;
+            addError(line, transactionId, BatchIngestionResult.ItemStatus.REJECTED, reasons);
+        }
+
+        synchronized void failed(long line, String transactionId, Throwable error) {
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            pending--;
+            records++;
+            failed++;
+            addError(line, transactionId, BatchIngestionResult.ItemStatus.FAILED,
+                    List.of("Failed to publish transaction: " + cause.getMessage()));
+        }
+
+        synchronized void abort(String reason) {
+            abortReason = reason;
+        }
+
+        synchronized StreamIngestionResult toResult() {
+            return StreamIngestionResult.builder()
+                    .records(records + pending)
+                    .accepted(accepted)
+                    .rejected(rejected)
+                    .failed(failed)
+                    .unacknowledged(pending)
+                    .errors(List.copyOf(errors))
+                    .errorsTruncated(rejected + failed > errors.size())
+                    .abortReason(abortReason)
+                    .build();
+        }
+
+        private void addError(long line, String transactionId, BatchIngestionResult.ItemStatus status,
+                              List<String> reasons) {
+            if (errors.size() < maxReportedErrors) {
+                errors.add(StreamIngestionResult.LineError.builder()
+                        .line(line)
+                        .transactionId(transactionId)
+                        .status(status)
+                        .errors(reasons)
+                        .build());
+            }
+        }
+    }
+}
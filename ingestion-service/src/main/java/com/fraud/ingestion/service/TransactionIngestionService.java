@@ -2,15 +2,27 @@ package com.fraud.ingestion.service;
 
 import com.fraud.common.dto.TransactionEvent;
 import com.fraud.common.exception.ValidationException;
+import com.fraud.ingestion.dto.BatchIngestionResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
 
 /**
  * Transaction Ingestion Service.
@@ -23,62 +35,79 @@ import java.util.UUID;
 @Slf4j
 public class TransactionIngestionService {
 
+    /** Batches smaller than this are validated on the calling thread. */
+    private static final int PARALLEL_THRESHOLD = 64;
+
     private final KafkaProducerService kafkaProducerService;
     private final TransactionValidatorService validatorService;
 
+    @Value("${ingestion.batch.send-timeout-ms:30000}")
+    private long sendTimeoutMs;
+
     /**
-     * Process and ingest a transaction.
+     * Process and ingest a transaction without blocking on the broker.
      *
      * @param event The transaction event to ingest
-     * @return The enriched transaction event
+     * @return Future of the enriched event, completed once the broker acknowledged it
+     * @throws ValidationException if validation fails
      */
-    public TransactionEvent ingestTransaction(TransactionEvent event) {
+    public CompletableFuture<TransactionEvent> ingestTransactionAcknowledged(TransactionEvent event) {
         log.info("Ingesting transaction: {}", event.getTransactionId());
 
-        // Validate the transaction
-        validatorService.validateTransaction(event);
+        validateAndEnrich(event);
 
-        // Enrich the transaction with additional data
-        enrichTransaction(event);
-
-        // Publish to Kafka
-        kafkaProducerService.publishTransaction(event);
-
-        log.info("Transaction {} successfully ingested", event.getTransactionId());
-        return event;
+        return kafkaProducerService.publishTransactionAcknowledged(event)
+                .thenApply(result -> {
+                    log.info("Transaction {} successfully ingested", event.getTransactionId());
+                    return event;
+                });
     }
 
     /**
      * Process and ingest a batch of transactions.
      *
+     * Items are validated and enriched in parallel, then all valid items are
+     * handed to the producer without waiting, in request order so records of
+     * the same user keep their order. The acknowledgments are awaited once
+     * for the whole batch.
+     *
      * @param events List of transaction events
-     * @return List of successfully ingested transactions
+     * @return Status of every item, in request order
      */
-    public List<TransactionEvent> ingestBatch(List<TransactionEvent> events) {
+    public BatchIngestionResult ingestBatch(List<TransactionEvent> events) {
         log.info("Ingesting batch of {} transactions", events.size());
 
-        List<TransactionEvent> successfulEvents = new ArrayList<>();
-        List<String> failedTransactions = new ArrayList<>();
-
-        for (TransactionEvent event : events) {
-            try {
-                TransactionEvent ingested = ingestTransaction(event);
-                successfulEvents.add(ingested);
-            } catch (Exception e) {
-                log.error("Failed to ingest transaction {}: {}", 
-                        event.getTransactionId(), e.getMessage());
-                failedTransactions.add(event.getTransactionId());
-            }
+        int size = events.size();
+        BatchIngestionResult.ItemResult[] results = new BatchIngestionResult.ItemResult[size];
+        IntStream indexes = IntStream.range(0, size);
+        if (size >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
         }
+        indexes.forEach(i -> results[i] = prepare(i, events.get(i)));
 
-        if (!failedTransactions.isEmpty()) {
-            log.warn("Batch ingestion completed with {} failures: {}", 
-                    failedTransactions.size(), failedTransactions);
+        List<CompletableFuture<SendResult<String, TransactionEvent>>> futures = new ArrayList<>(size);
+        for (BatchIngestionResult.ItemResult result : results) {
+            // Items without a status passed validation
+            futures.add(result.getStatus() == null ? send(result) : null);
         }
 
-        log.info("Batch ingestion completed: {} successful, {} failed", 
-                successfulEvents.size(), failedTransactions.size());
-        return successfulEvents;
+        awaitAcknowledgments(futures);
+
+        int failed = 0;
+        for (int i = 0; i < size; i++) {
+            CompletableFuture<SendResult<String, TransactionEvent>> future = futures.get(i);
+            if (future != null) {
+                complete(results[i], future);
+            }
+            if (results[i].getStatus() != BatchIngestionResult.ItemStatus.ACCEPTED) {
+                failed++;
+            }
+        }
+
+        log.info("Batch ingestion completed: {} successful, {} failed", size - failed, failed);
+        return BatchIngestionResult.builder()
+                .items(Arrays.asList(results))
+                .build();
     }
 
     /**
@@ -99,6 +128,75 @@ public class TransactionIngestionService {
         kafkaProducerService.publishTransactionAsync(event);
     }
 
+    private BatchIngestionResult.ItemResult prepare(int index, TransactionEvent event) {
+        BatchIngestionResult.ItemResult result = BatchIngestionResult.ItemResult.builder()
+                .index(index)
+                .event(event)
+                .build();
+        try {
+            validateAndEnrich(event);
+        } catch (ValidationException e) {
+            result.setStatus(BatchIngestionResult.ItemStatus.REJECTED);
+            result.setErrors(e.getValidationErrors());
+        } catch (Exception e) {
+            log.error("Failed to prepare transaction at index {}: {}", index, e.getMessage());
+            result.setStatus(BatchIngestionResult.ItemStatus.REJECTED);
+            result.setErrors(List.of(String.valueOf(e.getMessage())));
+        }
+        result.setTransactionId(event != null ? event.getTransactionId() : null);
+        return result;
+    }
+
+    private CompletableFuture<SendResult<String, TransactionEvent>> send(BatchIngestionResult.ItemResult result) {
+        try {
+            return kafkaProducerService.sendTransaction(result.getEvent());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void awaitAcknowledgments(List<CompletableFuture<SendResult<String, TransactionEvent>>> futures) {
+        CompletableFuture<?>[] pending = futures.stream().filter(Objects::nonNull).toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(pending).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Outcomes are collected per item
+        }
+    }
+
+    private void complete(BatchIngestionResult.ItemResult result,
+                          CompletableFuture<SendResult<String, TransactionEvent>> future) {
+        if (!future.isDone()) {
+            result.setStatus(BatchIngestionResult.ItemStatus.FAILED);
+            result.setErrors(List.of("Not acknowledged by the broker within " + sendTimeoutMs + " ms"));
+            return;
+        }
+        try {
+            SendResult<String, TransactionEvent> sendResult = future.join();
+            result.setStatus(BatchIngestionResult.ItemStatus.ACCEPTED);
+            result.setPartition(sendResult.getRecordMetadata().partition());
+            result.setOffset(sendResult.getRecordMetadata().offset());
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Failed to ingest transaction {}: {}", result.getTransactionId(), cause.getMessage());
+            result.setStatus(BatchIngestionResult.ItemStatus.FAILED);
+            result.setErrors(List.of("Failed to publish transaction: " + cause.getMessage()));
+        }
+    }
+
+    /**
+     * Validate a transaction and enrich it with defaults, without publishing it.
+     *
+     * @param event The transaction event
+     * @throws ValidationException if validation fails
+     */
+    void validateAndEnrich(TransactionEvent event) {
+        validatorService.validateTransaction(event);
+        enrichTransaction(event);
+    }
+
     /**
      * Enrich the transaction with additional data.
      *
@@ -11,9 +11,18 @@ import java.util.List;
 
 /**
  * Transaction Validator Service.
- * 
- * Provides custom validation logic for transaction events
- * beyond standard Bean Validation annotations.
+ *
+ * Validates transaction events in a single pass over their fields. It
+ * covers the Bean Validation constraints declared on TransactionEvent as
+ * well as the ingestion-specific rules, so the endpoints do not run a
+ * separate @Valid pass. Formats are checked with character scanners
+ * rather than regular expressions, and all messages are constants; the
+ * error list is only created once a check fails, so a valid event is
+ * validated without allocating.
+ *
+ * Like the annotations, the optional currency and card last four are only
+ * skipped when absent; a blank value is checked and rejected. Transaction
+ * ID and timestamp are optional, as enrichment fills them in.
  */
 @Service
 @Slf4j
@@ -21,8 +30,30 @@ public class TransactionValidatorService {
 
     private static final BigDecimal MIN_AMOUNT = new BigDecimal("0.01");
     private static final BigDecimal MAX_AMOUNT = new BigDecimal("10000000.00"); // 10 million
+    private static final int MAX_AMOUNT_FRACTION_DIGITS = 4;
     private static final int MAX_TRANSACTION_ID_LENGTH = 100;
     private static final int MAX_USER_ID_LENGTH = 100;
+    private static final int MAX_IP_ADDRESS_LENGTH = 45;
+
+    private static final String AMOUNT_REQUIRED = "Amount is required";
+    private static final String AMOUNT_TOO_SMALL = "Amount must be at least " + MIN_AMOUNT;
+    private static final String AMOUNT_TOO_LARGE = "Amount cannot exceed " + MAX_AMOUNT;
+    private static final String AMOUNT_FORMAT = "Invalid amount format";
+    private static final String USER_ID_REQUIRED = "User ID is required";
+    private static final String USER_ID_TOO_LONG = "User ID cannot exceed " + MAX_USER_ID_LENGTH + " characters";
+    private static final String USER_ID_CHARACTERS =
+            "User ID contains invalid characters. Only alphanumeric, underscore, and hyphen are allowed";
+    private static final String TRANSACTION_ID_TOO_LONG =
+            "Transaction ID cannot exceed " + MAX_TRANSACTION_ID_LENGTH + " characters";
+    private static final String CURRENCY_LENGTH = "Currency must be a 3-letter ISO code";
+    private static final String CURRENCY_CASE = "Currency must be uppercase letters only (e.g., USD, EUR, GBP)";
+    private static final String IP_ADDRESS_TOO_LONG =
+            "IP address must not exceed " + MAX_IP_ADDRESS_LENGTH + " characters";
+    private static final String IP_ADDRESS_FORMAT = "Invalid IP address format";
+    private static final String COORDINATES_PAIRED = "Both latitude and longitude must be provided together";
+    private static final String LATITUDE_RANGE = "Latitude must be between -90 and 90";
+    private static final String LONGITUDE_RANGE = "Longitude must be between -180 and 180";
+    private static final String CARD_LAST_FOUR_FORMAT = "Card last four must be exactly 4 digits";
 
     /**
      * Validate a transaction event.
@@ -31,36 +62,34 @@ public class TransactionValidatorService {
      * @throws ValidationException if validation fails
      */
     public void validateTransaction(TransactionEvent event) {
-        List<String> errors = new ArrayList<>();
-
         // Null check
         if (event == null) {
             throw new ValidationException("Transaction event cannot be null");
         }
 
-        // Validate amount
-        validateAmount(event.getAmount(), errors);
-
-        // Validate user ID
-        validateUserId(event.getUserId(), errors);
-
-        // Validate transaction ID (if provided)
-        validateTransactionId(event.getTransactionId(), errors);
-
-        // Validate currency
-        validateCurrency(event.getCurrency(), errors);
-
-        // Validate IP address format (if provided)
-        validateIpAddress(event.getIpAddress(), errors);
-
-        // Validate coordinates (if provided)
-        validateCoordinates(event.getLatitude(), event.getLongitude(), errors);
-
-        // Validate card last four (if provided)
-        validateCardLastFour(event.getCardLastFour(), errors);
+        List<String> errors = null;
+        errors = validateAmount(event.getAmount(), errors);
+        errors = validateUserId(event.getUserId(), errors);
+        errors = validateTransactionId(event.getTransactionId(), errors);
+        errors = validateCurrency(event.getCurrency(), errors);
+        errors = validateIpAddress(event.getIpAddress(), errors);
+        errors = validateCoordinates(event.getLatitude(), event.getLongitude(), errors);
+        errors = validateCardLastFour(event.getCardLastFour(), errors);
+
+        // Length limits of the descriptive fields
+        errors = validateLength(event.getMerchantId(), 100, "Merchant ID must not exceed 100 characters", errors);
+        errors = validateLength(event.getMerchantName(), 255, "Merchant name must not exceed 255 characters", errors);
+        errors = validateLength(event.getMerchantCategory(), 100,
+                "Merchant category must not exceed 100 characters", errors);
+        errors = validateLength(event.getLocation(), 255, "Location must not exceed 255 characters", errors);
+        errors = validateLength(event.getDeviceId(), 100, "Device ID must not exceed 100 characters", errors);
+        errors = validateLength(event.getCardType(), 50, "Card type must not exceed 50 characters", errors);
+        errors = validateLength(event.getTransactionType(), 50,
+                "Transaction type must not exceed 50 characters", errors);
+        errors = validateLength(event.getChannel(), 50, "Channel must not exceed 50 characters", errors);
 
         // Throw exception if there are validation errors
-        if (!errors.isEmpty()) {
+        if (errors != null) {
             log.warn("Transaction validation failed with {} errors: {}", errors.size(), errors);
             throw new ValidationException("Transaction validation failed", errors);
         }
@@ -68,111 +97,143 @@ public class TransactionValidatorService {
         log.debug("Transaction validation passed: {}", event.getTransactionId());
     }
 
-    private void validateAmount(BigDecimal amount, List<String> errors) {
+    private List<String> validateAmount(BigDecimal amount, List<String> errors) {
         if (amount == null) {
-            errors.add("Amount is required");
-            return;
+            return fail(errors, AMOUNT_REQUIRED);
         }
 
         if (amount.compareTo(MIN_AMOUNT) < 0) {
-            errors.add("Amount must be at least " + MIN_AMOUNT);
+            errors = fail(errors, AMOUNT_TOO_SMALL);
         }
 
         if (amount.compareTo(MAX_AMOUNT) > 0) {
-            errors.add("Amount cannot exceed " + MAX_AMOUNT);
+            errors = fail(errors, AMOUNT_TOO_LARGE);
         }
+
+        if (amount.scale() > MAX_AMOUNT_FRACTION_DIGITS) {
+            errors = fail(errors, AMOUNT_FORMAT);
+        }
+        return errors;
     }
 
-    private void validateUserId(String userId, List<String> errors) {
+    private List<String> validateUserId(String userId, List<String> errors) {
         if (userId == null || userId.isBlank()) {
-            errors.add("User ID is required");
-            return;
+            return fail(errors, USER_ID_REQUIRED);
         }
 
         if (userId.length() > MAX_USER_ID_LENGTH) {
-            errors.add("User ID cannot exceed " + MAX_USER_ID_LENGTH + " characters");
+            errors = fail(errors, USER_ID_TOO_LONG);
         }
 
-        // Check for invalid characters
-        if (!userId.matches("^[a-zA-Z0-9_-]+$")) {
-            errors.add("User ID contains invalid characters. Only alphanumeric, underscore, and hyphen are allowed");
+        // Only alphanumeric, underscore and hyphen
+        for (int i = 0; i < userId.length(); i++) {
+            char c = userId.charAt(i);
+            if (!isAsciiLetterOrDigit(c) && c != '_' && c != '-') {
+                return fail(errors, USER_ID_CHARACTERS);
+            }
         }
+        return errors;
     }
 
-    private void validateTransactionId(String transactionId, List<String> errors) {
-        if (transactionId == null || transactionId.isBlank()) {
-            // Transaction ID is optional, will be auto-generated if not provided
-            return;
-        }
-
-        if (transactionId.length() > MAX_TRANSACTION_ID_LENGTH) {
-            errors.add("Transaction ID cannot exceed " + MAX_TRANSACTION_ID_LENGTH + " characters");
+    private List<String> validateTransactionId(String transactionId, List<String> errors) {
+        // Transaction ID is optional, will be auto-generated if not provided
+        if (transactionId != null && transactionId.length() > MAX_TRANSACTION_ID_LENGTH) {
+            return fail(errors, TRANSACTION_ID_TOO_LONG);
         }
+        return errors;
     }
 
-    private void validateCurrency(String currency, List<String> errors) {
-        if (currency == null || currency.isBlank()) {
+    private List<String> validateCurrency(String currency, List<String> errors) {
+        if (currency == null) {
             // Currency is optional, will default to USD
-            return;
+            return errors;
         }
 
         if (currency.length() != 3) {
-            errors.add("Currency must be a 3-letter ISO code");
+            errors = fail(errors, CURRENCY_LENGTH);
         }
 
-        // Check if it's uppercase letters only
-        if (!currency.matches("^[A-Z]{3}$")) {
-            errors.add("Currency must be uppercase letters only (e.g., USD, EUR, GBP)");
+        // Exactly three uppercase letters
+        boolean uppercase = currency.length() == 3;
+        for (int i = 0; i < currency.length() && uppercase; i++) {
+            char c = currency.charAt(i);
+            uppercase = c >= 'A' && c <= 'Z';
         }
+        return uppercase ? errors : fail(errors, CURRENCY_CASE);
     }
 
-    private void validateIpAddress(String ipAddress, List<String> errors) {
+    private List<String> validateIpAddress(String ipAddress, List<String> errors) {
         if (ipAddress == null || ipAddress.isBlank()) {
-            return;
+            return errors;
         }
 
-        // Simple IPv4 or IPv6 validation
-        String ipv4Pattern = "^((25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\.){3}(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)$";
-        String ipv6Pattern = "^([0-9a-fA-F]{1,4}:){7}[0-9a-fA-F]{1,4}$";
+        if (ipAddress.length() > MAX_IP_ADDRESS_LENGTH) {
+            errors = fail(errors, IP_ADDRESS_TOO_LONG);
+        }
 
-        if (!ipAddress.matches(ipv4Pattern) && !ipAddress.matches(ipv6Pattern)) {
-            // Allow simplified patterns for testing
-            if (!ipAddress.matches("^[0-9.:a-fA-F]+$")) {
-                errors.add("Invalid IP address format");
+        // Dotted IPv4 and colon-separated IPv6 forms, including simplified ones used in testing
+        for (int i = 0; i < ipAddress.length(); i++) {
+            char c = ipAddress.charAt(i);
+            if (!isHexDigit(c) && c != '.' && c != ':') {
+                return fail(errors, IP_ADDRESS_FORMAT);
             }
         }
+        return errors;
     }
 
-    private void validateCoordinates(Double latitude, Double longitude, List<String> errors) {
+    private List<String> validateCoordinates(Double latitude, Double longitude, List<String> errors) {
         // Both must be provided together or neither
         boolean hasLatitude = latitude != null;
         boolean hasLongitude = longitude != null;
 
         if (hasLatitude != hasLongitude) {
-            errors.add("Both latitude and longitude must be provided together");
-            return;
+            return fail(errors, COORDINATES_PAIRED);
         }
 
-        if (latitude != null) {
-            if (latitude < -90 || latitude > 90) {
-                errors.add("Latitude must be between -90 and 90");
-            }
+        // Negated so that NaN is out of range, as for @DecimalMin and @DecimalMax
+        if (latitude != null && !(latitude >= -90 && latitude <= 90)) {
+            errors = fail(errors, LATITUDE_RANGE);
         }
 
-        if (longitude != null) {
-            if (longitude < -180 || longitude > 180) {
-                errors.add("Longitude must be between -180 and 180");
-            }
+        if (longitude != null && !(longitude >= -180 && longitude <= 180)) {
+            errors = fail(errors, LONGITUDE_RANGE);
         }
+        return errors;
     }
 
-    private void validateCardLastFour(String cardLastFour, List<String> errors) {
-        if (cardLastFour == null || cardLastFour.isBlank()) {
-            return;
+    private List<String> validateCardLastFour(String cardLastFour, List<String> errors) {
+        if (cardLastFour == null) {
+            return errors;
         }
 
-        if (!cardLastFour.matches("^[0-9]{4}$")) {
-            errors.add("Card last four must be exactly 4 digits");
+        boolean digits = cardLastFour.length() == 4;
+        for (int i = 0; i < cardLastFour.length() && digits; i++) {
+            char c = cardLastFour.charAt(i);
+            digits = c >= '0' && c <= '9';
         }
+        return digits ? errors : fail(errors, CARD_LAST_FOUR_FORMAT);
+    }
+
+    private List<String> validateLength(String value, int maxLength, String message, List<String> errors) {
+        return value != null && value.length() > maxLength ? fail(errors, message) : errors;
+    }
+
+    /**
+     * Record a failed check, creating the error list on the first failure.
+     */
+    private static List<String> fail(List<String> errors, String message) {
+        if (errors == null) {
+            errors = new ArrayList<>(4);
+        }
+        errors.add(message);
+        return errors;
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
     }
 }
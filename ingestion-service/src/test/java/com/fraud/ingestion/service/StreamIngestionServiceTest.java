@@ -0,0 +1,134 @@
+package com.fraud.ingestion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.ingestion.dto.BatchIngestionResult;
+import com.fraud.ingestion.dto.StreamIngestionResult;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.SendResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StreamIngestionServiceTest {
+
+    private static final String VALID = "{\"transactionId\":\"TXN-%d\",\"amount\":10.00,\"userId\":\"user-1\"}";
+
+    private final KafkaProducerService kafkaProducerService = mock(KafkaProducerService.class);
+    private final ExecutorService broker = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        broker.shutdownNow();
+    }
+
+    @Test
+    void countsEveryAcknowledgmentBeforeSummarizing() {
+        // Acknowledge late on broker threads, so callbacks race the final summary
+        Executor delayed = CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS, broker);
+        when(kafkaProducerService.sendTransaction(any())).thenAnswer(invocation ->
+                CompletableFuture.supplyAsync(() -> sendResult(), delayed));
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            body.append(VALID.formatted(i)).append('\n');
+        }
+
+        StreamIngestionResult result = service(8).ingest(stream(body.toString()), false);
+
+        assertThat(result.getRecords()).isEqualTo(200);
+        assertThat(result.getAccepted()).isEqualTo(200);
+        assertThat(result.getUnacknowledged()).isZero();
+    }
+
+    @Test
+    void reportsRejectedAndFailedRecordsByLine() {
+        when(kafkaProducerService.sendTransaction(any())).thenAnswer(invocation -> {
+            TransactionEvent event = invocation.getArgument(0);
+            return event.getTransactionId().equals("TXN-3")
+                    ? CompletableFuture.failedFuture(new IllegalStateException("broker down"))
+                    : CompletableFuture.completedFuture(sendResult());
+        });
+
+        String body = VALID.formatted(1) + "\n"
+                + "{\"transactionId\":\"TXN-2\",\"amount\":10.00}\n"
+                + "42\n"
+                + VALID.formatted(3) + "\n";
+
+        StreamIngestionResult result = service(8).ingest(stream(body), false);
+
+        assertThat(result.getRecords()).isEqualTo(4);
+        assertThat(result.getAccepted()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(StreamIngestionResult.LineError::getLine,
+                        StreamIngestionResult.LineError::getStatus)
+                .containsExactly(
+                        Tuple.tuple(2L, BatchIngestionResult.ItemStatus.REJECTED),
+                        Tuple.tuple(3L, BatchIngestionResult.ItemStatus.REJECTED),
+                        Tuple.tuple(4L, BatchIngestionResult.ItemStatus.FAILED));
+        assertThat(result.getErrors().get(0).getErrors()).contains("User ID is required");
+    }
+
+    @Test
+    void stopsAtMalformedJson() {
+        when(kafkaProducerService.sendTransaction(any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(sendResult()));
+
+        String body = VALID.formatted(1) + "\n{\"transactionId\" \"TXN-2\"}\n" + VALID.formatted(3) + "\n";
+
+        StreamIngestionResult result = service(8).ingest(stream(body), false);
+
+        assertThat(result.getAccepted()).isEqualTo(1);
+        assertThat(result.getAbortReason()).startsWith("Malformed JSON at line 2");
+    }
+
+    @Test
+    void readsGzipBodies() throws IOException {
+        when(kafkaProducerService.sendTransaction(any()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(sendResult()));
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write((VALID.formatted(1) + "\n" + VALID.formatted(2)).getBytes(StandardCharsets.UTF_8));
+        }
+
+        StreamIngestionResult result = service(8).ingest(new ByteArrayInputStream(compressed.toByteArray()), true);
+
+        assertThat(result.getAccepted()).isEqualTo(2);
+    }
+
+    private StreamIngestionService service(int maxInFlight) {
+        TransactionIngestionService ingestionService =
+                new TransactionIngestionService(kafkaProducerService, new TransactionValidatorService());
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        return new StreamIngestionService(ingestionService, kafkaProducerService, objectMapper,
+                maxInFlight, 5_000, 100);
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SendResult<String, TransactionEvent> sendResult() {
+        return mock(SendResult.class);
+    }
+}
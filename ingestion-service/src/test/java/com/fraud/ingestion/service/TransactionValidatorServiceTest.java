@@ -0,0 +1,129 @@
+package com.fraud.ingestion.service;
+
+import com.fraud.common.dto.TransactionEvent;
+import com.fraud.common.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class TransactionValidatorServiceTest {
+
+    private final TransactionValidatorService validator = new TransactionValidatorService();
+
+    @Test
+    void acceptsValidTransaction() {
+        assertThatCode(() -> validator.validateTransaction(valid().build())).doesNotThrowAnyException();
+    }
+
+    @Test
+    void acceptsMissingOptionalFields() {
+        TransactionEvent event = valid()
+                .transactionId(null)
+                .timestamp(null)
+                .currency(null)
+                .cardLastFour(null)
+                .ipAddress(null)
+                .build();
+
+        assertThatCode(() -> validator.validateTransaction(event)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void rejectsBlankCurrency() {
+        assertThat(errors(valid().currency(""))).containsExactly(
+                "Currency must be a 3-letter ISO code",
+                "Currency must be uppercase letters only (e.g., USD, EUR, GBP)");
+        assertThat(errors(valid().currency("   ")))
+                .containsExactly("Currency must be uppercase letters only (e.g., USD, EUR, GBP)");
+    }
+
+    @Test
+    void rejectsMalformedCurrency() {
+        assertThat(errors(valid().currency("usd")))
+                .containsExactly("Currency must be uppercase letters only (e.g., USD, EUR, GBP)");
+        assertThat(errors(valid().currency("EURO"))).contains("Currency must be a 3-letter ISO code");
+    }
+
+    @Test
+    void rejectsBlankCardLastFour() {
+        assertThat(errors(valid().cardLastFour("    "))).containsExactly("Card last four must be exactly 4 digits");
+        assertThat(errors(valid().cardLastFour(""))).containsExactly("Card last four must be exactly 4 digits");
+    }
+
+    @Test
+    void rejectsMalformedCardLastFour() {
+        assertThat(errors(valid().cardLastFour("12a4"))).containsExactly("Card last four must be exactly 4 digits");
+        assertThat(errors(valid().cardLastFour("12345"))).containsExactly("Card last four must be exactly 4 digits");
+    }
+
+    @Test
+    void rejectsInvalidUserId() {
+        assertThat(errors(valid().userId(" "))).containsExactly("User ID is required");
+        assertThat(errors(valid().userId("user@example")))
+                .containsExactly("User ID contains invalid characters. Only alphanumeric, underscore, and hyphen are allowed");
+        assertThat(errors(valid().userId("U".repeat(101)))).containsExactly("User ID cannot exceed 100 characters");
+    }
+
+    @Test
+    void rejectsAmountOutOfRange() {
+        assertThat(errors(valid().amount(null))).containsExactly("Amount is required");
+        assertThat(errors(valid().amount(new BigDecimal("0.001"))))
+                .containsExactly("Amount must be at least 0.01");
+        assertThat(errors(valid().amount(new BigDecimal("10000000.01"))))
+                .containsExactly("Amount cannot exceed 10000000.00");
+        assertThat(errors(valid().amount(new BigDecimal("10.00001")))).containsExactly("Invalid amount format");
+    }
+
+    @Test
+    void rejectsInvalidIpAddress() {
+        assertThat(errors(valid().ipAddress("10.0.0.x"))).containsExactly("Invalid IP address format");
+        assertThat(errors(valid().ipAddress("1".repeat(46))))
+                .containsExactly("IP address must not exceed 45 characters");
+    }
+
+    @Test
+    void rejectsInvalidCoordinates() {
+        assertThat(errors(valid().latitude(40.7).longitude(null)))
+                .containsExactly("Both latitude and longitude must be provided together");
+        assertThat(errors(valid().latitude(91.0).longitude(0.0))).containsExactly("Latitude must be between -90 and 90");
+        assertThat(errors(valid().latitude(Double.NaN).longitude(Double.NaN))).containsExactly(
+                "Latitude must be between -90 and 90",
+                "Longitude must be between -180 and 180");
+    }
+
+    @Test
+    void reportsEveryFailedCheck() {
+        assertThat(errors(valid().userId(null).currency("us").merchantName("M".repeat(256)))).containsExactly(
+                "User ID is required",
+                "Currency must be a 3-letter ISO code",
+                "Currency must be uppercase letters only (e.g., USD, EUR, GBP)",
+                "Merchant name must not exceed 255 characters");
+    }
+
+    private List<String> errors(TransactionEvent.TransactionEventBuilder builder) {
+        ValidationException exception = catchThrowableOfType(
+                () -> validator.validateTransaction(builder.build()), ValidationException.class);
+        assertThat(exception).isNotNull();
+        return exception.getValidationErrors();
+    }
+
+    private static TransactionEvent.TransactionEventBuilder valid() {
+        return TransactionEvent.builder()
+                .transactionId("TXN-1")
+                .amount(new BigDecimal("125.50"))
+                .currency("USD")
+                .userId("USER_001")
+                .merchantId("MERCH-1")
+                .ipAddress("192.168.1.10")
+                .latitude(40.7)
+                .longitude(-74.0)
+                .cardLastFour("4242")
+                .timestamp(Instant.parse("2024-01-10T12:00:00Z"));
+    }
+}
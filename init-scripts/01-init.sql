@@ -11,9 +11,15 @@ SET search_path TO fraud, public;
 -- ============================================
 -- TRANSACTIONS TABLE
 -- ============================================
+-- Range partitioned by day on created_at, which the fraud engine sets from
+-- the event timestamp. Unique keys must include the partition key, so a
+-- redelivered event is detected through (transaction_id, created_at).
+-- Daily partitions are created ahead and expired by the fraud engine's
+-- TransactionPartitionManager; rows outside every partition land in
+-- transactions_default.
 CREATE TABLE IF NOT EXISTS transactions (
-    id BIGSERIAL PRIMARY KEY,
-    transaction_id VARCHAR(100) NOT NULL UNIQUE,
+    id BIGSERIAL,
+    transaction_id VARCHAR(100) NOT NULL,
     amount DECIMAL(19, 4) NOT NULL,
     currency VARCHAR(3) DEFAULT 'USD',
     user_id VARCHAR(100) NOT NULL,
@@ -35,8 +41,29 @@ CREATE TABLE IF NOT EXISTS transactions (
     processing_time_ms INTEGER,
     created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
-    processed_at TIMESTAMP WITH TIME ZONE
-);
+    processed_at TIMESTAMP WITH TIME ZONE,
+    PRIMARY KEY (id, created_at),
+    UNIQUE (transaction_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS transactions_default PARTITION OF transactions DEFAULT;
+
+-- Partitions for the first week; the fraud engine keeps creating them ahead
+DO $$
+DECLARE
+    partition_day DATE;
+BEGIN
+    FOR i IN 0..7 LOOP
+        partition_day := (CURRENT_TIMESTAMP AT TIME ZONE 'UTC')::DATE + i;
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS transactions_p%s PARTITION OF transactions '
+                || 'FOR VALUES FROM (%L) TO (%L)',
+            to_char(partition_day, 'YYYYMMDD'),
+            partition_day::TIMESTAMP AT TIME ZONE 'UTC',
+            (partition_day + 1)::TIMESTAMP AT TIME ZONE 'UTC');
+    END LOOP;
+END
+$$;
 
 -- ============================================
 -- FRAUD ALERTS TABLE
@@ -44,7 +71,8 @@ CREATE TABLE IF NOT EXISTS transactions (
 CREATE TABLE IF NOT EXISTS fraud_alerts (
     id BIGSERIAL PRIMARY KEY,
     alert_id VARCHAR(100) NOT NULL UNIQUE,
-    transaction_id VARCHAR(100) NOT NULL REFERENCES transactions(transaction_id),
+    -- No foreign key: transaction_id alone is not unique in the partitioned transactions table
+    transaction_id VARCHAR(100) NOT NULL,
     alert_type VARCHAR(50) NOT NULL,
     severity VARCHAR(20) NOT NULL,
     fraud_score DECIMAL(5, 4),
@@ -72,7 +100,8 @@ CREATE TABLE IF NOT EXISTS user_profiles (
     last_known_ip VARCHAR(45),
     last_known_location VARCHAR(255),
     last_transaction_at TIMESTAMP WITH TIME ZONE,
-    transaction_count_24h INTEGER DEFAULT 0,
+    -- Decayed 24h aggregates as of last_transaction_at
+    transaction_count_24h DECIMAL(19, 6) DEFAULT 0,
     total_amount_24h DECIMAL(19, 4) DEFAULT 0,
     risk_score DECIMAL(5, 4) DEFAULT 0,
     created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
@@ -97,6 +126,20 @@ CREATE TABLE IF NOT EXISTS rules_config (
     updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
 );
 
+-- ============================================
+-- USER ACTIVITY BUCKETS (Hourly Velocity Aggregates)
+-- ============================================
+-- Transaction count and amount per user and hour of the event timestamp,
+-- maintained by the fraud engine so velocity over a day reads at most
+-- 25 rows per user. Buckets older than the retention are purged.
+CREATE TABLE IF NOT EXISTS user_activity_buckets (
+    user_id VARCHAR(100) NOT NULL,
+    bucket_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    transaction_count INTEGER NOT NULL DEFAULT 0,
+    total_amount DECIMAL(19, 4) NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_id, bucket_start)
+);
+
 -- ============================================
 -- AUDIT LOG TABLE
 -- ============================================
@@ -112,6 +155,14 @@ CREATE TABLE IF NOT EXISTS audit_log (
     created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
 );
 
+-- ============================================
+-- ID SEQUENCES
+-- ============================================
+-- The fraud engine allocates ids in blocks of 50 (pooled optimizer) so
+-- inserts can be JDBC-batched; the increment must match allocationSize.
+ALTER SEQUENCE transactions_id_seq INCREMENT BY 50;
+ALTER SEQUENCE user_profiles_id_seq INCREMENT BY 50;
+
 -- ============================================
 -- INDEXES FOR PERFORMANCE
 -- ============================================
@@ -122,6 +122,18 @@ class PredictionResponse(BaseModel):
         populate_by_name = True
 
 
+class BatchPredictionRequest(BaseModel):
+    transactions: List[PredictionRequest] = Field(..., min_length=1, max_length=1000)
+
+
+class BatchPredictionResponse(BaseModel):
+    predictions: List[PredictionResponse]
+    processing_time_ms: int = Field(..., alias="processingTimeMs")
+
+    class Config:
+        populate_by_name = True
+
+
 class HealthResponse(BaseModel):
     status: str
     model_loaded: bool = Field(..., alias="modelLoaded")
@@ -165,38 +177,13 @@ async def predict(request: PredictionRequest):
     try:
         start_time = datetime.utcnow()
         
-        # Convert request to feature dict
-        features = {
-            "amount": request.amount,
-            "hour_of_day": request.hour_of_day or 12,
-            "day_of_week": request.day_of_week or 3,
-            "is_weekend": 1 if request.is_weekend else 0,
-            "is_night_time": 1 if request.is_night_time else 0,
-            "transaction_count_last_24h": request.transaction_count_last_24h or 0,
-            "total_amount_last_24h": request.total_amount_last_24h or 0,
-            "is_new_device": 1 if request.is_new_device else 0,
-            "is_new_location": 1 if request.is_new_location else 0,
-            "is_new_merchant": 1 if request.is_new_merchant else 0,
-        }
-        
         # Get prediction
-        result = fraud_model.predict(features)
+        result = fraud_model.predict(to_features(request))
         
         processing_time = int((datetime.utcnow() - start_time).total_seconds() * 1000)
         
         # Build response
-        return PredictionResponse(
-            transaction_id=request.transaction_id,
-            fraud_probability=round(result["probability"], 4),
-            prediction=result["prediction"],
-            is_fraud=result["is_fraud"],
-            confidence=round(result["confidence"], 4),
-            model_name=fraud_model.model_name,
-            model_version=fraud_model.model_version,
-            processing_time_ms=processing_time,
-            threshold=fraud_model.threshold,
-            top_features=result.get("top_features")
-        )
+        return to_response(request, result, processing_time)
         
     except Exception as e:
         logger.error(f"Prediction error for transaction {request.transaction_id}: {e}")
@@ -206,6 +193,79 @@ async def predict(request: PredictionRequest):
         )
 
 
+@app.post("/predict/batch", response_model=BatchPredictionResponse)
+async def predict_batch(request: BatchPredictionRequest):
+    """
+    Get fraud predictions for a batch of transactions.
+    
+    The batch is scored with a single vectorised model call. Predictions
+    are returned in the order of the submitted transactions.
+    """
+    if fraud_model is None or not fraud_model.is_loaded():
+        raise HTTPException(
+            status_code=status.HTTP_503_SERVICE_UNAVAILABLE,
+            detail="Model not loaded"
+        )
+    
+    try:
+        start_time = datetime.utcnow()
+        
+        results = fraud_model.predict_batch([to_features(tx) for tx in request.transactions])
+        
+        processing_time = int((datetime.utcnow() - start_time).total_seconds() * 1000)
+        
+        return BatchPredictionResponse(
+            predictions=[
+                to_response(tx, result, processing_time)
+                for tx, result in zip(request.transactions, results)
+            ],
+            processing_time_ms=processing_time
+        )
+        
+    except Exception as e:
+        logger.error(f"Batch prediction error for {len(request.transactions)} transactions: {e}")
+        raise HTTPException(
+            status_code=status.HTTP_500_INTERNAL_SERVER_ERROR,
+            detail=f"Batch prediction failed: {str(e)}"
+        )
+
+
+def to_features(request: PredictionRequest) -> dict:
+    """Convert a prediction request to the model feature dict.
+
+    This is the reference for feature derivation; the engine's LocalModelScorer
+    mirrors it. Hour 0 is midnight, so only a missing value takes the default.
+    """
+    return {
+        "amount": request.amount,
+        "hour_of_day": 12 if request.hour_of_day is None else request.hour_of_day,
+        "day_of_week": 3 if request.day_of_week is None else request.day_of_week,
+        "is_weekend": 1 if request.is_weekend else 0,
+        "is_night_time": 1 if request.is_night_time else 0,
+        "transaction_count_last_24h": request.transaction_count_last_24h or 0,
+        "total_amount_last_24h": request.total_amount_last_24h or 0,
+        "is_new_device": 1 if request.is_new_device else 0,
+        "is_new_location": 1 if request.is_new_location else 0,
+        "is_new_merchant": 1 if request.is_new_merchant else 0,
+    }
+
+
+def to_response(request: PredictionRequest, result: dict, processing_time: int) -> PredictionResponse:
+    """Build the prediction response for a scored transaction."""
+    return PredictionResponse(
+        transaction_id=request.transaction_id,
+        fraud_probability=round(result["probability"], 4),
+        prediction=result["prediction"],
+        is_fraud=result["is_fraud"],
+        confidence=round(result["confidence"], 4),
+        model_name=fraud_model.model_name,
+        model_version=fraud_model.model_version,
+        processing_time_ms=processing_time,
+        threshold=fraud_model.threshold,
+        top_features=result.get("top_features")
+    )
+
+
 @app.get("/model/info")
 async def model_info():
     """Get information about the loaded model."""
@@ -90,6 +90,58 @@ class FraudDetectionModel:
         else:
             return self._predict_rule_based(features)
     
+    def predict_batch(self, features_list: List[Dict[str, Any]]) -> List[Dict[str, Any]]:
+        """
+        Make fraud predictions for a batch of feature sets.
+        
+        The whole batch goes through the scaler and the model in a single
+        vectorised call.
+        
+        Args:
+            features_list: List of feature dictionaries
+            
+        Returns:
+            List of prediction results, in input order
+        """
+        if not features_list:
+            return []
+        
+        if self.model is None:
+            return [self._predict_rule_based(features) for features in features_list]
+        
+        try:
+            X = np.vstack([self._prepare_features(features) for features in features_list])
+            
+            if self.scaler is not None:
+                X = self.scaler.transform(X)
+            
+            if hasattr(self.model, 'predict_proba'):
+                proba = self.model.predict_proba(X)
+                probabilities = proba[:, 1] if proba.shape[1] > 1 else proba[:, 0]
+            else:
+                probabilities = self.model.predict(X)
+            
+            return [
+                self._build_result(float(probability), features)
+                for probability, features in zip(probabilities, features_list)
+            ]
+            
+        except Exception as e:
+            logger.error(f"Batch model prediction failed: {e}, falling back to rules")
+            return [self._predict_rule_based(features) for features in features_list]
+    
+    def _build_result(self, fraud_probability: float, features: Dict[str, Any]) -> Dict[str, Any]:
+        """Build a prediction result from a model probability."""
+        is_fraud = fraud_probability >= self.threshold
+        
+        return {
+            "probability": fraud_probability,
+            "prediction": "FRAUD" if is_fraud else "LEGITIMATE",
+            "is_fraud": is_fraud,
+            "confidence": abs(fraud_probability - 0.5) * 2,
+            "top_features": self._get_feature_importance(features)
+        }
+    
     def _predict_with_model(self, features: Dict[str, Any]) -> Dict[str, Any]:
         """Make prediction using the loaded ML model."""
         try:
@@ -107,20 +159,7 @@ class FraudDetectionModel:
             else:
                 fraud_probability = float(self.model.predict(X)[0])
             
-            # Make decision
-            is_fraud = fraud_probability >= self.threshold
-            prediction = "FRAUD" if is_fraud else "LEGITIMATE"
-            
-            # Calculate confidence
-            confidence = abs(fraud_probability - 0.5) * 2
-            
-            return {
-                "probability": fraud_probability,
-                "prediction": prediction,
-                "is_fraud": is_fraud,
-                "confidence": confidence,
-                "top_features": self._get_feature_importance(features)
-            }
+            return self._build_result(fraud_probability, features)
             
         except Exception as e:
             logger.error(f"Model prediction failed: {e}, falling back to rules")
@@ -6,6 +6,7 @@ Uses synthetic data for demonstration purposes.
 """
 
 import os
+import json
 import pickle
 import logging
 from datetime import datetime
@@ -151,9 +152,79 @@ def train_model(df: pd.DataFrame, output_path: str = "model/fraud_model.pkl"):
     
     logger.info(f"Model saved to {output_path}")
     
+    export_model(model_data, os.path.splitext(output_path)[0] + ".json", parity_sample=X_test.head(200))
+    
     return model, scaler, metrics
 
 
+def export_model(model_data: dict, output_path: str, parity_sample: pd.DataFrame = None):
+    """
+    Export the model to a portable JSON format for in-process scoring.
+    
+    Tree ensembles are written as flat per-tree node arrays holding the
+    split feature, split threshold, child indexes and the fraud
+    probability of each leaf. Linear models are written as coefficients
+    and intercept. Scaler parameters are included so the consumer can
+    apply the same preprocessing. When a parity sample is given, its raw
+    feature rows and sklearn's fraud probabilities for them are included
+    so the in-process scorer can be checked against this model.
+    """
+    model = model_data["model"]
+    scaler = model_data["scaler"]
+    
+    exported = {
+        "modelName": "FraudDetector",
+        "version": model_data["version"],
+        "threshold": model_data["threshold"],
+        "featureNames": model_data["feature_names"],
+        "scaler": {
+            "mean": scaler.mean_.tolist(),
+            "scale": scaler.scale_.tolist(),
+        },
+    }
+    
+    if hasattr(model, "estimators_"):
+        fraud_class = list(model.classes_).index(1)
+        exported["type"] = "TREE_ENSEMBLE"
+        exported["trees"] = [_export_tree(estimator.tree_, fraud_class) for estimator in model.estimators_]
+    elif hasattr(model, "coef_"):
+        exported["type"] = "LOGISTIC"
+        exported["coefficients"] = model.coef_[0].tolist()
+        exported["intercept"] = float(model.intercept_[0])
+    else:
+        logger.warning(f"Model type {type(model).__name__} cannot be exported, skipping")
+        return
+    
+    if parity_sample is not None:
+        fraud_class = list(model.classes_).index(1)
+        exported["parity"] = {
+            "features": parity_sample.to_numpy(dtype=np.float64).tolist(),
+            "probabilities": model.predict_proba(scaler.transform(parity_sample))[:, fraud_class].tolist(),
+        }
+    
+    with open(output_path, "w") as f:
+        json.dump(exported, f)
+    
+    logger.info(f"Portable model exported to {output_path}")
+
+
+def _export_tree(tree, fraud_class: int) -> dict:
+    """Export a fitted sklearn tree as flat node arrays."""
+    counts = tree.value[:, 0, :]
+    totals = counts.sum(axis=1)
+    fraud_probability = np.divide(
+        counts[:, fraud_class], totals, out=np.zeros_like(totals), where=totals > 0
+    )
+    
+    return {
+        "feature": tree.feature.tolist(),
+        "threshold": tree.threshold.tolist(),
+        "left": tree.children_left.tolist(),
+        "right": tree.children_right.tolist(),
+        "value": fraud_probability.tolist(),
+    }
+
+
 if __name__ == "__main__":
     # Generate synthetic data
     df = generate_synthetic_data(n_samples=50000)